@@ -0,0 +1,96 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Rows per second decoded column by column from an Arrow record batch, against the row by row JDBC getters of the {@link RowDecoder}.
+ * <p>
+ * The batch holds the same rows as the result set, typed by the {@link ArrowRowWriter}. The Databricks JDBC driver does not expose
+ * the Arrow batches it fetches with {@code EnableArrow}, so {@link #arrowVectors} is the bound of a columnar decode, not a path of {@link Query}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SyntheticRows.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArrowDecodeBenchmark {
+    private final DatabricksCellConverter cellConverter = new DatabricksCellConverter(SyntheticRows.ZONE_ID);
+
+    private BufferAllocator allocator;
+    private ArrowFileReader reader;
+    private VectorSchemaRoot root;
+
+    @Setup(Level.Trial)
+    public void setup(SyntheticRows rows) throws SQLException, IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ResultSet rs = rows.resultSet(); ArrowRowWriter writer = new ArrowRowWriter(output)) {
+            RowDecoder decoder = RowDecoder.of(rs, cellConverter, null);
+            writer.start(decoder.getColumns());
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        allocator = new RootAllocator();
+        reader = new ArrowFileReader(new ByteArrayReadableSeekableByteChannel(output.toByteArray()), allocator);
+        // all the rows fit in a single batch
+        reader.loadNextBatch();
+        root = reader.getVectorSchemaRoot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        allocator.close();
+    }
+
+    @Benchmark
+    public void jdbcGetters(SyntheticRows rows, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = rows.resultSet()) {
+            RowDecoder decoder = RowDecoder.of(rs, cellConverter, null);
+            int columnCount = decoder.getColumnCount();
+            while (rs.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    blackhole.consume(decoder.read(rs, i));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void arrowVectors(Blackhole blackhole) {
+        int rowCount = root.getRowCount();
+        for (FieldVector vector : root.getFieldVectors()) {
+            for (int row = 0; row < rowCount; row++) {
+                blackhole.consume(vector.getObject(row));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Rows per second read from a result set by {@link Query}, with the resolved {@link RowDecoder} and with a
+ * {@link DatabricksCellConverter#convertCell} call per cell as a reference.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SyntheticRows.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowDecoderBenchmark {
+    private final DatabricksCellConverter cellConverter = new DatabricksCellConverter(SyntheticRows.ZONE_ID);
+
+    @Benchmark
+    public void decode(SyntheticRows rows, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = rows.resultSet()) {
+            RowDecoder decoder = RowDecoder.of(rs, cellConverter, null);
+            while (rs.next()) {
+                blackhole.consume(decoder.decode(rs));
+            }
+        }
+    }
+
+    @Benchmark
+    public void convertCell(SyntheticRows rows, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = rows.resultSet()) {
+            int columnCount = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columnCount; i++) {
+                    blackhole.consume(cellConverter.convertCell(i, rs, null));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rows per second decoded and serialized by {@link Query} when storing a result, sequentially on the fetching thread
+ * ({@code threads} = 0) or with a {@link PipelinedRowWriter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SyntheticRows.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowWriterBenchmark {
+    private final DatabricksCellConverter cellConverter = new DatabricksCellConverter(SyntheticRows.ZONE_ID);
+
+    @Param({"ION", "JSON", "CSV"})
+    public OutputFormat format;
+
+    @Param({"0", "2"})
+    public int threads;
+
+    @Benchmark
+    public long write(SyntheticRows rows) throws SQLException, IOException {
+        // the count is returned so that the writes are not eliminated
+        try (ResultSet rs = rows.resultSet(); RowWriter writer = writer(OutputStream.nullOutputStream())) {
+            RowDecoder decoder = RowDecoder.of(rs, cellConverter, null);
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+            return writer.getCount();
+        }
+    }
+
+    private RowWriter writer(OutputStream outputStream) throws IOException {
+        if (threads == 0) {
+            return format.writer(outputStream, true);
+        }
+
+        return new PipelinedRowWriter(format, outputStream, threads, 1_000);
+    }
+}
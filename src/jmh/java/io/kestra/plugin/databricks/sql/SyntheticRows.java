@@ -0,0 +1,124 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Rows of a synthetic result set shared by the fetch path benchmarks, generated once per trial.
+ */
+@State(Scope.Benchmark)
+public class SyntheticRows {
+    /**
+     * Rows of each result set, the benchmarks report one operation per row.
+     */
+    static final int ROWS = 10_000;
+
+    static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    /**
+     * Column types of the result set: the mixed columns of the tests or only one family of types.
+     */
+    @Param({"mixed", "numeric", "string", "temporal"})
+    public String columns;
+
+    /**
+     * Length of the string and binary values.
+     */
+    @Param({"16", "256"})
+    public int width;
+
+    /**
+     * Part of the values that are null, the first column is never null.
+     */
+    @Param({"0.0", "0.5"})
+    public double nullRatio;
+
+    List<SyntheticResultSet.Column> columnList;
+
+    List<Object[]> rows;
+
+    @Setup
+    public void setup() {
+        columnList = switch (columns) {
+            case "mixed" -> RowDecoderTest.COLUMNS;
+            case "numeric" -> List.of(
+                new SyntheticResultSet.Column("id", Types.BIGINT, "BIGINT"),
+                new SyntheticResultSet.Column("count", Types.INTEGER, "INT"),
+                new SyntheticResultSet.Column("ratio", Types.DOUBLE, "DOUBLE"),
+                new SyntheticResultSet.Column("amount", Types.DECIMAL, "DECIMAL(18,4)", 18, 4)
+            );
+            case "string" -> List.of(
+                new SyntheticResultSet.Column("id", Types.VARCHAR, "STRING"),
+                new SyntheticResultSet.Column("name", Types.VARCHAR, "STRING"),
+                new SyntheticResultSet.Column("description", Types.VARCHAR, "STRING"),
+                new SyntheticResultSet.Column("comment", Types.VARCHAR, "STRING")
+            );
+            case "temporal" -> List.of(
+                new SyntheticResultSet.Column("day", Types.DATE, "DATE"),
+                new SyntheticResultSet.Column("created", Types.TIMESTAMP, "TIMESTAMP"),
+                new SyntheticResultSet.Column("updated", Types.TIMESTAMP, "TIMESTAMP")
+            );
+            default -> throw new IllegalArgumentException("Unknown columns '" + columns + "'");
+        };
+
+        // a fixed seed so that all the runs compare the same data
+        Random random = new Random(42);
+        rows = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            Object[] values = new Object[columnList.size()];
+            for (int i = 0; i < values.length; i++) {
+                if (i == 0 || random.nextDouble() >= nullRatio) {
+                    values[i] = value(columnList.get(i).sqlType(), row, random);
+                }
+            }
+            rows.add(values);
+        }
+    }
+
+    /**
+     * A new result set over the rows, positioned before the first row.
+     */
+    ResultSet resultSet() {
+        return SyntheticResultSet.of(columnList, rows);
+    }
+
+    private Object value(int sqlType, int row, Random random) {
+        return switch (sqlType) {
+            case Types.BIGINT -> (long) row;
+            case Types.INTEGER -> random.nextInt();
+            case Types.DOUBLE -> random.nextDouble();
+            case Types.BOOLEAN -> random.nextBoolean();
+            case Types.DECIMAL -> BigDecimal.valueOf(random.nextLong(1_000_000_000L), 4).setScale(4, RoundingMode.UNNECESSARY);
+            case Types.DATE -> Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(3650)));
+            case Types.TIMESTAMP -> new Timestamp(1_700_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+            case Types.BINARY -> {
+                byte[] bytes = new byte[width];
+                random.nextBytes(bytes);
+                yield bytes;
+            }
+            default -> string(random);
+        };
+    }
+
+    private String string(Random random) {
+        char[] chars = new char[width];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
@@ -2,11 +2,15 @@ package io.kestra.plugin.databricks.dbfs;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Metric;
@@ -16,7 +20,10 @@ import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.utils.FileUtils;
+import io.kestra.core.utils.IdUtils;
 import io.kestra.plugin.databricks.AbstractTask;
+import io.kestra.plugin.databricks.utils.Compression;
+import io.kestra.plugin.databricks.utils.StorageOutputStream;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -57,12 +64,17 @@ import io.kestra.core.models.annotations.PluginProperty;
             name = "file.size",
             type = "counter",
             description = "The file size"
+        ),
+        @Metric(
+            name = "file.compressed.size",
+            type = "counter",
+            description = "The size of the stored file, only with compression set"
         )
     }
 )
 @Schema(
     title = "Download a file from DBFS",
-    description = "Streams a DBFS file to a temp file in Kestra internal storage using 1 MB chunks; returns the storage URI."
+    description = "Streams a DBFS file to a temp file in Kestra internal storage using 1 MB chunks, optionally compressing it or uploading it while it is downloaded; returns the storage URI."
 )
 public class Download extends AbstractTask implements RunnableTask<Download.Output> {
     @Schema(
@@ -73,20 +85,70 @@ public class Download extends AbstractTask implements RunnableTask<Download.Outp
     @PluginProperty(group = "main")
     private Property<String> from;
 
+    @Schema(
+        title = "Compression of the stored file",
+        description = "The file is compressed while it is downloaded and the codec extension is appended to its name, for example `.csv.gz`."
+    )
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<Compression> compression = Property.ofValue(Compression.NONE);
+
+    @Schema(
+        title = "Whether the file is uploaded to internal storage while it is downloaded",
+        description = "The file is written straight to internal storage instead of a local temp file uploaded at the end, so no local disk is needed. Defaults to false."
+    )
+    @PluginProperty(group = "destination")
+    private Property<Boolean> streamToStorage;
+
     @Override
     public Output run(RunContext runContext) throws Exception {
         String path = runContext.render(from).as(String.class).orElseThrow();
-        File tempFile = runContext.workingDir().createTempFile(FileUtils.getExtension(path)).toFile();
+        Compression renderedCompression = runContext.render(compression).as(Compression.class).orElse(Compression.NONE);
+        boolean streaming = runContext.render(streamToStorage).as(Boolean.class).orElse(false);
+        String extension = FileUtils.getExtension(path) + renderedCompression.getExtension();
         var workspace = workspaceClient(runContext);
 
-        try (
-            InputStream in = workspace.dbfs().open(path);
-            OutputStream out = new FileOutputStream(tempFile)
-        ) {
-            int size = IOUtils.copy(in, out);
+        ExecutorService uploader = streaming ? Executors.newSingleThreadExecutor() : null;
+        try {
+            File tempFile = null;
+            StorageOutputStream storageOutputStream = null;
+            if (streaming) {
+                storageOutputStream = new StorageOutputStream(runContext, IdUtils.create() + extension, uploader);
+            } else {
+                tempFile = runContext.workingDir().createTempFile(extension).toFile();
+            }
+
+            CountingOutputStream compressedBytes = new CountingOutputStream(streaming ? storageOutputStream : new FileOutputStream(tempFile));
+            long size;
+            try (
+                InputStream in = workspace.dbfs().open(path);
+                OutputStream out = renderedCompression.compress(compressedBytes)
+            ) {
+                try {
+                    size = IOUtils.copyLarge(in, out);
+                } catch (IOException | RuntimeException e) {
+                    // before closing, which would store the truncated file
+                    if (storageOutputStream != null) {
+                        storageOutputStream.abort();
+                    }
+                    throw e;
+                }
+            }
+
             runContext.metric(Counter.of("file.size", size));
-            var uri = runContext.storage().putFile(tempFile);
-            return Output.builder().uri(uri).build();
+            if (renderedCompression != Compression.NONE) {
+                runContext.metric(Counter.of("file.compressed.size", compressedBytes.getByteCount()));
+            }
+
+            var uri = streaming ? storageOutputStream.getUri() : runContext.storage().putFile(tempFile);
+            return Output.builder()
+                .uri(uri)
+                .compression(renderedCompression)
+                .build();
+        } finally {
+            if (uploader != null) {
+                uploader.shutdownNow();
+            }
         }
     }
 
@@ -99,5 +161,10 @@ public class Download extends AbstractTask implements RunnableTask<Download.Outp
             description = "Internal storage URI for the downloaded file"
         )
         private final URI uri;
+
+        @Schema(
+            title = "Compression of the stored file"
+        )
+        private final Compression compression;
     }
 }
@@ -5,13 +5,25 @@ import java.math.BigInteger;
 import java.sql.*;
 import java.time.*;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-import com.google.common.collect.ImmutableList;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+
+import io.kestra.core.serializers.JacksonMapper;
 
 //FIXME duplicated from io.kestra.plugin.jdbc.AbstractCellConverter
 abstract class AbstractCellConverter {
@@ -23,7 +35,15 @@ abstract class AbstractCellConverter {
 
     public abstract Object convertCell(int columnIndex, ResultSet rs, Connection connection) throws SQLException;
 
-    private static final List<Class<?>> SIMPLE_TYPES = ImmutableList.of(
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+
+    // INTERVAL YEAR TO MONTH values, e.g. -1-2
+    private static final Pattern YEAR_MONTH_INTERVAL = Pattern.compile("(-?)(\\d+)-(\\d+)");
+
+    // INTERVAL DAY TO SECOND values, e.g. 1 02:03:04.500000000
+    private static final Pattern DAY_TIME_INTERVAL = Pattern.compile("(-?)(\\d+) (\\d+):(\\d+):(\\d+)(?:\\.(\\d{1,9}))?");
+
+    private static final Set<Class<?>> SIMPLE_TYPES = ImmutableSet.of(
         String.class,
         Boolean.class,
         Integer.class,
@@ -35,6 +55,70 @@ abstract class AbstractCellConverter {
         byte[].class
     );
 
+    /**
+     * Resolves the reader of a column from its Databricks type name first, for the types that share a JDBC type with others
+     * or are reported as text: complex types, intervals and timestamps without time zone.
+     */
+    protected ColumnReader columnReader(int sqlType, String typeName, Connection connection) {
+        String upperTypeName = typeName == null ? "" : typeName.toUpperCase(Locale.ROOT);
+
+        if (sqlType == Types.ARRAY || sqlType == Types.STRUCT || isComplex(upperTypeName)) {
+            return (rs, i) -> nested(rs.getObject(i), typeName);
+        }
+        if (upperTypeName.startsWith("INTERVAL")) {
+            return (rs, i) -> {
+                Object value = rs.getObject(i);
+                return value instanceof String string ? interval(string) : value;
+            };
+        }
+        if (upperTypeName.equals("TIMESTAMP_NTZ")) {
+            return (rs, i) -> {
+                Timestamp value = rs.getTimestamp(i);
+                return value == null ? null : value.toLocalDateTime();
+            };
+        }
+
+        return columnReader(sqlType, connection);
+    }
+
+    /**
+     * Resolves the reader used for every cell of a column with the given {@link Types JDBC type}.
+     * Types with a direct JDBC getter are read without going through {@link ResultSet#getObject(int)},
+     * the others fall back to {@link #convertCell(int, ResultSet, Connection)}.
+     */
+    protected ColumnReader columnReader(int sqlType, Connection connection) {
+        return switch (sqlType) {
+            case Types.BOOLEAN, Types.BIT -> (rs, i) -> {
+                boolean value = rs.getBoolean(i);
+                return rs.wasNull() ? null : value;
+            };
+            case Types.INTEGER -> (rs, i) -> {
+                int value = rs.getInt(i);
+                return rs.wasNull() ? null : value;
+            };
+            case Types.BIGINT -> (rs, i) -> {
+                long value = rs.getLong(i);
+                return rs.wasNull() ? null : value;
+            };
+            case Types.DOUBLE -> (rs, i) -> {
+                double value = rs.getDouble(i);
+                return rs.wasNull() ? null : value;
+            };
+            case Types.DECIMAL, Types.NUMERIC -> ResultSet::getBigDecimal;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> ResultSet::getString;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> ResultSet::getBytes;
+            case Types.DATE -> (rs, i) -> {
+                Date value = rs.getDate(i);
+                return value == null ? null : value.toLocalDate();
+            };
+            case Types.TIMESTAMP -> (rs, i) -> {
+                Timestamp value = rs.getTimestamp(i);
+                return value == null ? null : value.toInstant().atZone(zoneId);
+            };
+            default -> (rs, i) -> convertCell(i, rs, connection);
+        };
+    }
+
     protected Object convert(int columnIndex, ResultSet rs) throws SQLException {
         Object data = rs.getObject(columnIndex);
         if (data == null) {
@@ -80,11 +164,167 @@ abstract class AbstractCellConverter {
             return data;
         }
 
+        if (data instanceof LocalDateTime || data instanceof Duration || data instanceof Period) {
+            return data;
+        }
+
+        if (data instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.atZoneSameInstant(zoneId);
+        }
+
+        if (data instanceof Instant instant) {
+            return instant.atZone(zoneId);
+        }
+
+        if (data instanceof Array || data instanceof Struct || data instanceof Map<?, ?> || data instanceof Collection<?>) {
+            return nested(data, rs.getMetaData().getColumnTypeName(columnIndex));
+        }
+
         String columnName = rs.getMetaData().getColumnName(columnIndex);
 
         throw new IllegalArgumentException("Data of type '" + clazz + "' for column '" + columnName + "' is not supported");
     }
 
+    /**
+     * Converts an ARRAY, MAP or STRUCT value into lists and maps, recursively, using the Databricks type name for the struct field names.
+     * Values read as JSON text, the format of the driver when its complex type support is disabled, are parsed without their nested types.
+     */
+    protected Object nested(Object value, String typeName) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+
+        String upperTypeName = typeName == null ? "" : typeName.toUpperCase(Locale.ROOT);
+
+        if (value instanceof String string) {
+            if (isComplex(upperTypeName)) {
+                try {
+                    return JSON_MAPPER.readValue(string, Object.class);
+                } catch (JsonProcessingException e) {
+                    throw new SQLException("Unable to parse the value of type '" + typeName + "'", e);
+                }
+            }
+            return upperTypeName.startsWith("INTERVAL") ? interval(string) : string;
+        }
+
+        if (value instanceof Array array) {
+            return nested(Arrays.asList((Object[]) array.getArray()), typeName);
+        }
+
+        if (value instanceof Collection<?> collection) {
+            String elementType = typeArgument(typeName, 0);
+            List<Object> list = new ArrayList<>(collection.size());
+            for (Object item : collection) {
+                list.add(nested(item, elementType));
+            }
+            return list;
+        }
+
+        if (value instanceof Map<?, ?> map) {
+            String keyType = typeArgument(typeName, 0);
+            String valueType = typeArgument(typeName, 1);
+            Map<String, Object> result = LinkedHashMap.newLinkedHashMap(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                result.put(String.valueOf(nested(entry.getKey(), keyType)), nested(entry.getValue(), valueType));
+            }
+            return result;
+        }
+
+        if (value instanceof Struct struct) {
+            Object[] attributes = struct.getAttributes();
+            List<String> fields = typeArguments(typeName != null ? typeName : struct.getSQLTypeName());
+            Map<String, Object> result = LinkedHashMap.newLinkedHashMap(attributes.length);
+            for (int i = 0; i < attributes.length; i++) {
+                String field = i < fields.size() ? fields.get(i) : null;
+                int separator = field == null ? -1 : field.indexOf(':');
+                String name = separator < 0 ? "col" + (i + 1) : field.substring(0, separator).strip().replace("`", "");
+                result.put(name, nested(attributes[i], separator < 0 ? null : field.substring(separator + 1)));
+            }
+            return result;
+        }
+
+        if (value instanceof Timestamp timestamp) {
+            return upperTypeName.equals("TIMESTAMP_NTZ") ? timestamp.toLocalDateTime() : timestamp.toInstant().atZone(zoneId);
+        }
+
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+
+        if (value instanceof BigInteger) {
+            return value.toString();
+        }
+
+        return value;
+    }
+
+    /**
+     * Parses a Databricks interval, {@code Y-M} for year-month intervals and {@code D HH:MM:SS.NNNNNNNNN} for day-time intervals,
+     * the value is returned as is in any other format.
+     */
+    protected static Object interval(String value) {
+        Matcher yearMonth = YEAR_MONTH_INTERVAL.matcher(value);
+        if (yearMonth.matches()) {
+            int sign = yearMonth.group(1).isEmpty() ? 1 : -1;
+            return Period.of(sign * Integer.parseInt(yearMonth.group(2)), sign * Integer.parseInt(yearMonth.group(3)), 0);
+        }
+
+        Matcher dayTime = DAY_TIME_INTERVAL.matcher(value);
+        if (dayTime.matches()) {
+            String fraction = dayTime.group(6) == null ? "0" : dayTime.group(6);
+            Duration duration = Duration.ofDays(Long.parseLong(dayTime.group(2)))
+                .plusHours(Long.parseLong(dayTime.group(3)))
+                .plusMinutes(Long.parseLong(dayTime.group(4)))
+                .plusSeconds(Long.parseLong(dayTime.group(5)))
+                .plusNanos(Long.parseLong((fraction + "00000000").substring(0, 9)));
+            return dayTime.group(1).isEmpty() ? duration : duration.negated();
+        }
+
+        return value;
+    }
+
+    private static boolean isComplex(String upperTypeName) {
+        return upperTypeName.startsWith("ARRAY") || upperTypeName.startsWith("MAP") || upperTypeName.startsWith("STRUCT");
+    }
+
+    private static String typeArgument(String typeName, int index) {
+        List<String> arguments = typeArguments(typeName);
+        return index < arguments.size() ? arguments.get(index) : null;
+    }
+
+    /**
+     * The top level arguments of a complex type name, e.g. {@code INT} and {@code ARRAY<STRING>} for {@code MAP<INT,ARRAY<STRING>>}.
+     */
+    static List<String> typeArguments(String typeName) {
+        if (typeName == null) {
+            return List.of();
+        }
+
+        int start = typeName.indexOf('<');
+        int end = typeName.lastIndexOf('>');
+        if (start < 0 || end < start) {
+            return List.of();
+        }
+
+        List<String> arguments = new ArrayList<>();
+        int depth = 0;
+        int from = start + 1;
+        for (int i = from; i < end; i++) {
+            char c = typeName.charAt(i);
+            if (c == '<' || c == '(') {
+                depth++;
+            } else if (c == '>' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                arguments.add(typeName.substring(from, i).strip());
+                from = i + 1;
+            }
+        }
+        arguments.add(typeName.substring(from, end).strip());
+
+        return arguments;
+    }
+
     protected PreparedStatement addPreparedStatementValue(PreparedStatement ps, ParameterType parameterType, Object value, int index, Connection connection) throws Exception {
         Class<?> cls = parameterType.getClass(index);
 
@@ -0,0 +1,387 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import com.databricks.client.jdbc.Driver;
+import com.databricks.sdk.WorkspaceClient;
+import com.databricks.sdk.core.ConfigLoader;
+import com.databricks.sdk.core.DatabricksConfig;
+import com.google.common.hash.Hashing;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Base class of the tasks connecting to Databricks through the JDBC driver.
+ * For more information on the JDBC drivers see <a href="https://docs.databricks.com/integrations/jdbc-odbc-bi.html#jdbc-driver">JDBC Driver</a>.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractJdbcTask extends Task {
+    private static final String ENABLE_ARROW_PROPERTY = "EnableArrow";
+
+    private static final int DEFAULT_POOL_MAX_SIZE = 8;
+
+    private static final Duration DEFAULT_POOL_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Duration DEFAULT_POOL_MAX_WAIT = Duration.ofMinutes(1);
+
+    private static final int DEFAULT_POOL_STATEMENT_CACHE_SIZE = 16;
+
+    private static final String WAREHOUSE_PATH_PREFIX = "/sql/1.0/warehouses/";
+
+    static {
+        try {
+            DriverManager.registerDriver(new Driver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @NotNull
+    @Schema(title = "Databricks host", description = "Server hostname without protocol, e.g. adb-12345.7.azuredatabricks.net")
+    @PluginProperty(group = "main")
+    private Property<String> host;
+
+    @NotNull
+    @Schema(
+        title = "Databricks cluster HTTP Path",
+        description = "HTTP Path from the cluster connection details (Advanced options → JDBC/ODBC)."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> httpPath;
+
+    @Schema(title = "Catalog used for the connection", description = "Sets ConnCatalog on the JDBC URL when provided")
+    @PluginProperty(group = "advanced")
+    private Property<String> catalog;
+
+    @Schema(title = "Schema used for the connection", description = "Sets ConnSchema on the JDBC URL when provided")
+    @PluginProperty(group = "connection")
+    private Property<String> schema;
+
+    @Schema(title = "Databricks access token", description = "Personal Access Token passed as the JDBC password; render from secrets")
+    @PluginProperty(secret = true, group = "connection")
+    private Property<String> accessToken;
+
+    @Schema(title = "Additional JDBC properties", description = "Optional map merged into the Databricks driver properties after authentication")
+    @PluginProperty(group = "advanced")
+    private Property<Map<String, String>> properties;
+
+    @Schema(
+        title = "Time zone for temporal values",
+        description = "Timezone used when converting date/time columns; defaults to the worker JVM time zone"
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> timeZoneId;
+
+    @Schema(
+        title = "Use the Arrow result format of the JDBC driver",
+        description = """
+            The driver then fetches results as Arrow record batches, which is usually faster for large or wide results.
+            The driver does not expose these batches: the task still reads rows one by one through the JDBC getters, so only the transfer and the decoding inside the driver change.
+            On Java 17+ the driver needs the worker JVM to be started with `--add-opens=java.base/java.nio=ALL-UNNAMED` (e.g. in `JAVA_OPTS`); when it is not, Arrow stays disabled and a warning is logged.
+            When not set, the driver default is used.
+            """
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> enableArrow;
+
+    @Schema(
+        title = "Connection pool configuration",
+        description = """
+            When enabled, connections are kept open after the task and shared with the next task executions of the worker using the same URL, catalog, schema and credentials, skipping the connection setup.
+            Session state changed by a statement, e.g. with `USE`, is kept on the pooled connection.
+            """
+    )
+    @PluginProperty(group = "advanced")
+    private ConnectionPoolConfig connectionPool;
+
+    protected String jdbcUrl(RunContext runContext) throws IllegalVariableEvaluationException {
+        var url = "jdbc:databricks://" + runContext.render(host).as(String.class).orElseThrow() + ":443;HttpPath=" + runContext.render(httpPath).as(String.class).orElseThrow();
+        if (catalog != null) {
+            url += ";ConnCatalog=" + runContext.render(catalog).as(String.class).orElseThrow();
+        }
+        if (schema != null) {
+            url += ";ConnSchema=" + runContext.render(schema).as(String.class).orElseThrow();
+        }
+
+        return url;
+    }
+
+    protected Properties jdbcProperties(RunContext runContext) throws IllegalVariableEvaluationException {
+        var props = new Properties();
+        if (accessToken != null) {
+            props.put("PWD", runContext.render(accessToken).as(String.class).orElseThrow());
+        }
+        var renderedEnableArrow = runContext.render(enableArrow).as(Boolean.class);
+        if (renderedEnableArrow.isPresent()) {
+            props.put(ENABLE_ARROW_PROPERTY, arrowSupported(runContext, renderedEnableArrow.get()) ? "1" : "0");
+        }
+        var propertiesValue = runContext.render(properties).asMap(String.class, String.class);
+        if (!propertiesValue.isEmpty()) {
+            props.putAll(propertiesValue);
+        }
+
+        return props;
+    }
+
+    /**
+     * Opens a connection, or borrows one from the worker pool when enabled; closing the returned lease closes or gives back the connection.
+     */
+    protected ConnectionLease connection(RunContext runContext) throws Exception {
+        ConnectionLease lease = connector(runContext).open();
+        lease.recordMetrics(runContext);
+        return lease;
+    }
+
+    /**
+     * Renders the connection settings once, for connections opened outside the task thread.
+     * The pool metrics of the leases it opens must then be recorded from the task thread with {@link ConnectionLease#recordMetrics(RunContext)}.
+     */
+    protected Connector connector(RunContext runContext) throws Exception {
+        var url = jdbcUrl(runContext);
+        var props = jdbcProperties(runContext);
+        runContext.logger().debug("Using JDBC URL: {}", url);
+
+        if (connectionPool == null || !runContext.render(connectionPool.enabled).as(Boolean.class).orElse(false)) {
+            return new Connector(url, props, null);
+        }
+
+        var settings = new ConnectionPool.Settings(
+            runContext.render(connectionPool.maxSize).as(Integer.class).orElse(DEFAULT_POOL_MAX_SIZE),
+            runContext.render(connectionPool.idleTimeout).as(Duration.class).orElse(DEFAULT_POOL_IDLE_TIMEOUT),
+            runContext.render(connectionPool.maxWait).as(Duration.class).orElse(DEFAULT_POOL_MAX_WAIT),
+            runContext.render(connectionPool.statementCacheSize).as(Integer.class).orElse(DEFAULT_POOL_STATEMENT_CACHE_SIZE)
+        );
+        return new Connector(url, props, settings);
+    }
+
+    /**
+     * Workspace client authenticated with the same host and access token as the JDBC connection, for the REST APIs.
+     */
+    protected WorkspaceClient workspaceClient(RunContext runContext) throws IllegalVariableEvaluationException {
+        String renderedHost = runContext.render(host).as(String.class).orElseThrow();
+        DatabricksConfig cfg = new DatabricksConfig()
+            .setHost(renderedHost.startsWith("https://") ? renderedHost : "https://" + renderedHost)
+            .setToken(runContext.render(accessToken).as(String.class).orElse(null));
+
+        // will use env var for each config that is not set
+        ConfigLoader.resolve(cfg);
+
+        return new WorkspaceClient(cfg);
+    }
+
+    /**
+     * The id of the SQL warehouse of an HTTP path like {@code /sql/1.0/warehouses/<id>}, or null for the HTTP path of a cluster.
+     */
+    static String warehouseId(String httpPath) {
+        String path = httpPath.strip();
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        if (!path.startsWith(WAREHOUSE_PATH_PREFIX)) {
+            return null;
+        }
+
+        String id = path.substring(WAREHOUSE_PATH_PREFIX.length());
+        int end = id.indexOf('/');
+        id = end < 0 ? id : id.substring(0, end);
+
+        return id.isEmpty() ? null : id;
+    }
+
+    /**
+     * The parameter types of a prepared statement, or null when the driver does not expose them and values are bound as objects.
+     */
+    protected static ParameterType parameterType(RunContext runContext, PreparedStatement ps) {
+        try {
+            return ParameterType.of(ps.getParameterMetaData());
+        } catch (Exception e) {
+            runContext.logger().debug("Unable to read the statement parameter metadata, binding values as objects", e);
+            return null;
+        }
+    }
+
+    /**
+     * Binds the values in order, with their reported type when the driver describes every parameter and the value matches it, as objects otherwise.
+     * The metadata can't be trusted on its own: the driver reports no parameter before the values are bound.
+     */
+    static void bind(PreparedStatement ps, ParameterType parameterType, List<Object> values, AbstractCellConverter cellConverter, Connection connection) throws Exception {
+        boolean typed = parameterType != null && parameterType.getCount() == values.size();
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (typed && parameterType.accepts(i + 1, value)) {
+                cellConverter.addPreparedStatementValue(ps, parameterType, value, i + 1, connection);
+            } else {
+                ps.setObject(i + 1, value);
+            }
+        }
+    }
+
+    //FIXME duplicated with io.kestra.plugin.jdbc.AbstractJdbcQuery
+    protected ZoneId zoneId(RunContext runContext) throws IllegalVariableEvaluationException {
+        if (this.getTimeZoneId() != null) {
+            return ZoneId.of(runContext.render(this.getTimeZoneId()).as(String.class).orElseThrow());
+        }
+
+        return TimeZone.getDefault().toZoneId();
+    }
+
+    /**
+     * The URL with a hash of the connection properties, so that connections or results are only shared by tasks using the same credentials and settings.
+     */
+    static String poolKey(String url, Properties props) {
+        // credentials are part of the key but only through their hash
+        var sorted = new TreeMap<String, String>();
+        props.forEach((key, value) -> sorted.put(key.toString(), value.toString()));
+
+        return url + "#" + Hashing.sha256().hashString(sorted.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static boolean arrowSupported(RunContext runContext, boolean enableArrow) {
+        if (!enableArrow) {
+            return false;
+        }
+
+        // Arrow memory buffers need reflective access to java.nio, which only the JVM command line can grant
+        if (!Object.class.getModule().isOpen("java.nio", Driver.class.getModule())) {
+            runContext.logger().warn(
+                "Arrow is requested but java.nio is not opened to the Databricks JDBC driver, falling back to the non-Arrow result format. " +
+                    "Start the worker JVM with '--add-opens=java.base/java.nio=ALL-UNNAMED' to enable it."
+            );
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * A connection used by a task; closing it closes the connection, or gives it back to the pool it was borrowed from.
+     */
+    protected static final class Connector {
+        private final String url;
+        private final Properties props;
+        private final ConnectionPool.Settings poolSettings;
+
+        private Connector(String url, Properties props, ConnectionPool.Settings poolSettings) {
+            this.url = url;
+            this.props = props;
+            this.poolSettings = poolSettings;
+        }
+
+        public ConnectionLease open() throws SQLException, InterruptedException {
+            if (poolSettings == null) {
+                return new ConnectionLease(DriverManager.getConnection(url, props), null);
+            }
+
+            var lease = ConnectionPool.getInstance().borrow(poolKey(url, props), poolSettings, () -> DriverManager.getConnection(url, props));
+            return new ConnectionLease(lease.getConnection(), lease);
+        }
+    }
+
+    protected static final class ConnectionLease implements AutoCloseable {
+        private final Connection connection;
+        private final ConnectionPool.Lease lease;
+
+        private ConnectionLease(Connection connection, ConnectionPool.Lease lease) {
+            this.connection = connection;
+            this.lease = lease;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Prepares a statement; on a pooled connection it comes from the statement cache of the connection and closing it keeps it cached.
+         */
+        public PreparedStatement prepareStatement(String sql) throws SQLException {
+            if (lease == null) {
+                return connection.prepareStatement(sql);
+            }
+
+            return lease.getPooledConnection().prepareStatement(sql);
+        }
+
+        /**
+         * Records whether the connection came from the pool and how long it was waited for, when pooled.
+         */
+        public void recordMetrics(RunContext runContext) {
+            if (lease != null) {
+                runContext.metric(Counter.of(lease.isHit() ? "pool.hit" : "pool.miss", 1));
+                runContext.metric(Timer.of("pool.wait", lease.getWaitDuration()));
+            }
+        }
+
+        /**
+         * Marks the connection as broken so that it is not reused.
+         */
+        public void invalidate() {
+            if (lease != null) {
+                lease.invalidate();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (lease != null) {
+                lease.close();
+            } else {
+                connection.close();
+            }
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class ConnectionPoolConfig {
+        @Schema(title = "Whether connections are pooled", description = "Defaults to false")
+        private Property<Boolean> enabled;
+
+        @Schema(
+            title = "Maximum number of connections",
+            description = "Maximum number of open connections per URL and credentials on a worker, in use or idle; defaults to 8. The first task creating the pool for a connection sets its size."
+        )
+        private Property<Integer> maxSize;
+
+        @Schema(title = "Idle timeout", description = "Idle connections are closed after this duration; defaults to PT5M")
+        private Property<Duration> idleTimeout;
+
+        @Schema(title = "Maximum wait for a connection", description = "How long to wait for a connection when all are in use before failing; defaults to PT1M")
+        private Property<Duration> maxWait;
+
+        @Schema(
+            title = "Prepared statements cached per connection",
+            description = "Number of prepared statements kept open on each pooled connection, least recently used first out, so that a parameterized query run again is not parsed again; defaults to 16, 0 disables the cache."
+        )
+        private Property<Integer> statementCacheSize;
+    }
+}
@@ -0,0 +1,83 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import com.databricks.sdk.service.sql.GetWarehouseResponse;
+import com.databricks.sdk.service.sql.State;
+import com.databricks.sdk.support.Wait;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.databricks.AbstractTask;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Base class of the tasks changing the lifecycle of a SQL warehouse through the Warehouses API.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractWarehouseTask extends AbstractTask {
+    private static final Duration DEFAULT_MAX_WAIT = Duration.ofMinutes(20);
+
+    @NotNull
+    @Schema(title = "SQL warehouse identifier", description = "ID of the SQL warehouse, the last part of its HTTP path `/sql/1.0/warehouses/<id>`")
+    @PluginProperty(group = "main")
+    private Property<String> warehouseId;
+
+    @Schema(
+        title = "Whether to wait for the warehouse to reach its target state",
+        description = "When false, the task returns as soon as the change is requested, e.g. to warm up a warehouse in parallel with other tasks. Defaults to true."
+    )
+    @PluginProperty(group = "execution")
+    private Property<Boolean> waitForCompletion;
+
+    @Schema(title = "Maximum duration to wait for the warehouse", description = "Only used when waiting; defaults to PT20M")
+    @PluginProperty(group = "execution")
+    private Property<Duration> maxWait;
+
+    protected String renderWarehouseId(RunContext runContext) throws Exception {
+        return runContext.render(warehouseId).as(String.class).orElseThrow();
+    }
+
+    /**
+     * Waits for the requested change unless waitForCompletion is false, and returns the state of the warehouse.
+     */
+    protected State await(RunContext runContext, String id, Wait<GetWarehouseResponse, ?> wait) throws Exception {
+        if (!runContext.render(waitForCompletion).as(Boolean.class).orElse(true)) {
+            return workspaceClient(runContext).warehouses().get(id).getState();
+        }
+
+        Duration renderedMaxWait = runContext.render(maxWait).as(Duration.class).orElse(DEFAULT_MAX_WAIT);
+        try {
+            return wait.get(renderedMaxWait).getState();
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Warehouse " + id + " did not reach its target state after " + renderedMaxWait);
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "SQL warehouse identifier")
+        private final String warehouseId;
+
+        @Schema(title = "Warehouse state when the task ended")
+        private final State state;
+
+        @Schema(title = "Time spent waiting for the warehouse", description = "Zero when the warehouse was already in the target state or when not waiting")
+        private final Duration duration;
+    }
+}
@@ -0,0 +1,223 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+/**
+ * Writes rows as an Arrow IPC file, in record batches of {@link #BATCH_SIZE} rows.
+ * <p>
+ * Columns are typed like in the {@link AvroRowWriter}: decimals are 128-bit decimals, dates are days and timestamps microseconds,
+ * in UTC or without a time zone, and the other columns, e.g. intervals or nested values, are written as text.
+ * A file holds a single result set, and an empty result still holds its schema.
+ * The Arrow buffers are allocated off-heap, which needs the JVM to open {@code java.nio}, see {@link #isSupported()}.
+ */
+final class ArrowRowWriter implements RowWriter {
+    static final int BATCH_SIZE = 10_000;
+
+    private final OutputStream outputStream;
+    private BufferAllocator allocator;
+    private VectorSchemaRoot root;
+    private ArrowFileWriter writer;
+    private ResultColumns columns;
+    private List<ColumnSetter> setters;
+    private int rows = 0;
+    private long count = 0;
+
+    ArrowRowWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Whether the Arrow memory can be allocated, it needs reflective access to {@code java.nio} that only the JVM command line can grant.
+     */
+    static boolean isSupported() {
+        return Object.class.getModule().isOpen("java.nio", BufferAllocator.class.getModule());
+    }
+
+    @Override
+    public void start(ResultColumns columns) throws IOException {
+        if (columns == this.columns) {
+            return;
+        }
+        if (writer != null) {
+            throw new IOException("An Arrow file holds a single result set, the statement returned several");
+        }
+
+        this.columns = columns;
+        allocator = new RootAllocator();
+        root = VectorSchemaRoot.create(schema(columns), allocator);
+        setters = new ArrayList<>(columns.size());
+        for (FieldVector vector : root.getFieldVectors()) {
+            setters.add(setter(vector));
+        }
+        root.allocateNew();
+        // the underlying stream belongs to the caller
+        writer = new ArrowFileWriter(root, null, Channels.newChannel(CloseShieldOutputStream.wrap(outputStream)));
+        writer.start();
+    }
+
+    @Override
+    public void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+        start(decoder.getColumns());
+
+        for (int i = 0; i < setters.size(); i++) {
+            set(i, decoder.read(rs, i));
+        }
+        written();
+    }
+
+    @Override
+    public void write(String[] columnNames, Object[] values) throws IOException {
+        if (writer == null) {
+            throw new IOException("The columns of an Arrow file must be described before its rows");
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            set(i, values[i]);
+        }
+        written();
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    private void set(int index, Object value) throws IOException {
+        // cells not set are null
+        if (value != null) {
+            setters.get(index).set(rows, value);
+        }
+    }
+
+    private void written() throws IOException {
+        rows++;
+        count++;
+        if (rows == BATCH_SIZE) {
+            writeBatch();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        root.setRowCount(rows);
+        writer.writeBatch();
+        root.allocateNew();
+        rows = 0;
+    }
+
+    static Schema schema(ResultColumns columns) {
+        List<Field> fields = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            fields.add(new Field(columns.name(i), FieldType.nullable(type(columns, i)), null));
+        }
+
+        return new Schema(fields);
+    }
+
+    private static ArrowType type(ResultColumns columns, int index) {
+        return switch (columns.sqlType(index)) {
+            case Types.BOOLEAN, Types.BIT -> ArrowType.Bool.INSTANCE;
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> new ArrowType.Int(32, true);
+            case Types.BIGINT -> new ArrowType.Int(64, true);
+            case Types.REAL, Types.FLOAT -> new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+            case Types.DOUBLE -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case Types.DECIMAL, Types.NUMERIC -> {
+                int precision = columns.precision(index);
+                int scale = columns.scale(index);
+                // a driver not reporting the precision leaves the decimal as text
+                yield precision > 0 && precision <= 38 && scale >= 0 && scale <= precision
+                    ? new ArrowType.Decimal(precision, scale, 128)
+                    : ArrowType.Utf8.INSTANCE;
+            }
+            case Types.DATE -> new ArrowType.Date(DateUnit.DAY);
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> AvroRowWriter.isWithoutTimeZone(columns.typeName(index))
+                ? new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)
+                : new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> ArrowType.Binary.INSTANCE;
+            default -> ArrowType.Utf8.INSTANCE;
+        };
+    }
+
+    private static ColumnSetter setter(FieldVector vector) {
+        return switch (vector) {
+            case BitVector bits -> (row, value) -> bits.setSafe(row, TypedValues.bool(value) ? 1 : 0);
+            case IntVector ints -> (row, value) -> ints.setSafe(row, TypedValues.number(value).intValue());
+            case BigIntVector longs -> (row, value) -> longs.setSafe(row, TypedValues.number(value).longValue());
+            case Float4Vector floats -> (row, value) -> floats.setSafe(row, TypedValues.number(value).floatValue());
+            case Float8Vector doubles -> (row, value) -> doubles.setSafe(row, TypedValues.number(value).doubleValue());
+            case DecimalVector decimals -> (row, value) -> decimals.setSafe(row, TypedValues.decimal(value, decimals.getScale()));
+            case DateDayVector days -> (row, value) -> days.setSafe(row, TypedValues.epochDay(value));
+            case TimeStampVector timestamps -> (row, value) -> timestamps.setSafe(row, TypedValues.epochMicros(value));
+            case VarBinaryVector binaries -> (row, value) -> binaries.setSafe(row, (byte[]) value);
+            case VarCharVector strings -> (row, value) -> strings.setSafe(row, TypedValues.text(value).getBytes(StandardCharsets.UTF_8));
+            default -> throw new IllegalArgumentException("Unsupported Arrow vector " + vector.getClass().getName());
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            if (rows > 0) {
+                writeBatch();
+            }
+            // writes the footer
+            writer.end();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (writer != null) {
+            release();
+        }
+    }
+
+    private void release() {
+        // the writer has nothing to release but its channel, which is not closed to leave the stream to the caller
+        writer = null;
+        root.close();
+        allocator.close();
+    }
+
+    @FunctionalInterface
+    private interface ColumnSetter {
+        void set(int row, Object value) throws IOException;
+    }
+}
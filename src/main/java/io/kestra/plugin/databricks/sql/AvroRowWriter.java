@@ -0,0 +1,181 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+/**
+ * Writes rows as an Avro object container file, with a record schema built from the columns of the result set.
+ * <p>
+ * Each field is a union of null and the type of its column: booleans, integers, floating point numbers and binaries keep their type,
+ * decimals are {@code decimal} bytes, dates are {@code date} and timestamps {@code timestamp-micros}, or {@code local-timestamp-micros} without a time zone.
+ * The other columns, e.g. intervals or nested values, are written as text like in the CSV format.
+ * Column names are turned into valid Avro names. A file holds a single result set, and an empty result still holds its schema.
+ */
+final class AvroRowWriter implements RowWriter {
+    private final OutputStream outputStream;
+    private DataFileWriter<GenericRecord> writer;
+    private ResultColumns columns;
+    private Schema schema;
+    private Schema[] types;
+    private long count = 0;
+
+    AvroRowWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void start(ResultColumns columns) throws IOException {
+        if (columns == this.columns) {
+            return;
+        }
+        if (writer != null) {
+            throw new IOException("An Avro file holds a single result set, the statement returned several");
+        }
+
+        this.columns = columns;
+        schema = schema(columns);
+        types = types(schema);
+        writer = new DataFileWriter<>(new GenericDatumWriter<>(schema));
+        // the underlying stream belongs to the caller
+        writer.create(schema, CloseShieldOutputStream.wrap(outputStream));
+    }
+
+    @Override
+    public void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+        start(decoder.getColumns());
+
+        GenericRecord record = new GenericData.Record(schema);
+        for (int i = 0; i < types.length; i++) {
+            record.put(i, value(types[i], decoder.read(rs, i)));
+        }
+        append(record);
+    }
+
+    @Override
+    public void write(String[] columnNames, Object[] values) throws IOException {
+        if (writer == null) {
+            throw new IOException("The columns of an Avro file must be described before its rows");
+        }
+
+        GenericRecord record = new GenericData.Record(schema);
+        for (int i = 0; i < values.length; i++) {
+            record.put(i, value(types[i], values[i]));
+        }
+        append(record);
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    private void append(GenericRecord record) throws IOException {
+        writer.append(record);
+        count++;
+    }
+
+    static Schema schema(ResultColumns columns) {
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("Row").namespace("io.kestra.plugin.databricks").fields();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String columnName = columns.name(i);
+            String name = name(columnName);
+            // names made equal by the sanitization are numbered
+            String unique = name;
+            for (int j = 1; !names.add(unique); j++) {
+                unique = name + "_" + j;
+            }
+            Schema type = Schema.createUnion(List.of(Schema.create(Schema.Type.NULL), type(columns, i)));
+            fields = fields.name(unique).doc(columnName).type(type).withDefault(null);
+        }
+
+        return fields.endRecord();
+    }
+
+    /**
+     * The non-null type of each field of the schema.
+     */
+    static Schema[] types(Schema schema) {
+        return schema.getFields().stream()
+            .map(field -> field.schema().getTypes().get(1))
+            .toArray(Schema[]::new);
+    }
+
+    private static Schema type(ResultColumns columns, int index) {
+        return switch (columns.sqlType(index)) {
+            case Types.BOOLEAN, Types.BIT -> Schema.create(Schema.Type.BOOLEAN);
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> Schema.create(Schema.Type.INT);
+            case Types.BIGINT -> Schema.create(Schema.Type.LONG);
+            case Types.REAL, Types.FLOAT -> Schema.create(Schema.Type.FLOAT);
+            case Types.DOUBLE -> Schema.create(Schema.Type.DOUBLE);
+            case Types.DECIMAL, Types.NUMERIC -> {
+                int precision = columns.precision(index);
+                int scale = columns.scale(index);
+                // a driver not reporting the precision leaves the decimal as text
+                yield precision > 0 && scale >= 0 && scale <= precision
+                    ? LogicalTypes.decimal(precision, scale).addToSchema(Schema.create(Schema.Type.BYTES))
+                    : Schema.create(Schema.Type.STRING);
+            }
+            case Types.DATE -> LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT));
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> isWithoutTimeZone(columns.typeName(index))
+                ? LogicalTypes.localTimestampMicros().addToSchema(Schema.create(Schema.Type.LONG))
+                : LogicalTypes.timestampMicros().addToSchema(Schema.create(Schema.Type.LONG));
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> Schema.create(Schema.Type.BYTES);
+            default -> Schema.create(Schema.Type.STRING);
+        };
+    }
+
+    static boolean isWithoutTimeZone(String typeName) {
+        return typeName != null && typeName.toUpperCase(Locale.ROOT).equals("TIMESTAMP_NTZ");
+    }
+
+    private static String name(String columnName) {
+        String name = columnName.replaceAll("[^A-Za-z0-9_]", "_");
+        return name.isEmpty() || Character.isDigit(name.charAt(0)) ? "_" + name : name;
+    }
+
+    /**
+     * The value in the Avro representation of the field type, e.g. the days since the epoch for a {@code date}.
+     */
+    static Object value(Schema type, Object value) throws IOException {
+        if (value == null) {
+            return null;
+        }
+
+        return switch (type.getType()) {
+            case BOOLEAN -> TypedValues.bool(value);
+            case INT -> type.getLogicalType() != null ? TypedValues.epochDay(value) : TypedValues.number(value).intValue();
+            case LONG -> type.getLogicalType() != null ? TypedValues.epochMicros(value) : TypedValues.number(value).longValue();
+            case FLOAT -> TypedValues.number(value).floatValue();
+            case DOUBLE -> TypedValues.number(value).doubleValue();
+            case BYTES -> type.getLogicalType() instanceof LogicalTypes.Decimal decimal
+                ? ByteBuffer.wrap(TypedValues.decimal(value, decimal.getScale()).unscaledValue().toByteArray())
+                : ByteBuffer.wrap((byte[]) value);
+            default -> TypedValues.text(value);
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
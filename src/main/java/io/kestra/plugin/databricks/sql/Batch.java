@@ -0,0 +1,198 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Metric;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Insert the rows of an Ion file from internal storage into a Databricks table.",
+            full = true,
+            code = """
+                id: databricks_sql_batch
+                namespace: company.team
+
+                inputs:
+                  - id: file
+                    type: FILE
+
+                tasks:
+                  - id: batch
+                    type: io.kestra.plugin.databricks.sql.Batch
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    from: "{{ inputs.file }}"
+                    sql: INSERT INTO my_catalog.my_schema.my_table (id, name) VALUES (?, ?)
+                    columns:
+                      - id
+                      - name
+                    chunk: 5000
+                """
+        )
+    },
+    metrics = {
+        @Metric(name = "records", type = "counter", description = "Number of rows sent"),
+        @Metric(name = "query", type = "counter", description = "Number of executed batches"),
+        @Metric(name = "batch.duration", type = "timer", description = "Duration of each batch execution"),
+        @Metric(name = "records.per.second", type = "counter", description = "Average number of rows sent per second over the whole task")
+    }
+)
+@Schema(
+    title = "Bulk insert an Ion file into Databricks",
+    description = """
+        Streams the rows of an Ion file from Kestra internal storage, binds them to a parameterized SQL statement and sends them with JDBC batches of `chunk` rows.
+        Rows can be maps, whose values are bound in key order or in the order of `columns`, or lists bound by position.
+        """
+)
+public class Batch extends AbstractJdbcTask implements RunnableTask<Batch.Output> {
+    @NotNull
+    @Schema(title = "Source file URI", description = "Kestra internal storage URI of the Ion file to insert")
+    @PluginProperty(internalStorageURI = true, group = "main")
+    private Property<String> from;
+
+    @NotNull
+    @Schema(
+        title = "Parameterized SQL statement",
+        description = "Statement executed for each row, with one `?` placeholder per bound value, e.g. `INSERT INTO my_table VALUES (?, ?)`"
+    )
+    @PluginProperty(group = "main")
+    private Property<String> sql;
+
+    @Schema(
+        title = "Columns to bind",
+        description = "Keys of the map rows bound to the placeholders, in order; defaults to all the keys of each row"
+    )
+    @PluginProperty(group = "main")
+    private Property<List<String>> columns;
+
+    @Schema(title = "Number of rows per batch")
+    @Builder.Default
+    @NotNull
+    @PluginProperty(group = "execution")
+    private Property<Integer> chunk = Property.ofValue(1000);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        URI from = URI.create(runContext.render(this.from).as(String.class).orElseThrow());
+        String query = runContext.render(sql).as(String.class).orElseThrow();
+        int renderedChunk = runContext.render(chunk).as(Integer.class).orElse(1000);
+        List<String> renderedColumns = runContext.render(columns).asList(String.class);
+        var cellConverter = new DatabricksCellConverter(zoneId(runContext));
+
+        long start = System.nanoTime();
+        long count = 0;
+        long updated = 0;
+
+        try (var lease = connection(runContext)) {
+            try (
+                PreparedStatement ps = lease.getConnection().prepareStatement(query);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(from)), FileSerde.BUFFER_SIZE)
+            ) {
+                Connection connection = lease.getConnection();
+                ParameterType parameterType = parameterType(runContext, ps);
+                runContext.logger().debug("Starting batch: {}", query);
+
+                for (List<Object> rows : FileSerde.readAll(reader).buffer(renderedChunk).toIterable()) {
+                    addBatch(ps, parameterType, rows, renderedColumns, cellConverter, connection);
+
+                    long batchStart = System.nanoTime();
+                    int[] updatedRows = ps.executeBatch();
+                    runContext.metric(Timer.of("batch.duration", Duration.ofNanos(System.nanoTime() - batchStart)));
+                    runContext.metric(Counter.of("query", 1));
+
+                    count += rows.size();
+                    for (int updatedRow : updatedRows) {
+                        if (updatedRow != Statement.SUCCESS_NO_INFO) {
+                            updated += updatedRow;
+                        }
+                    }
+                }
+            } catch (SQLException | InterruptedException e) {
+                // part of the rows may have been sent, the session is not given back to the pool
+                lease.invalidate();
+                throw e;
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000D;
+        runContext.metric(Counter.of("records", count));
+        runContext.metric(Counter.of("records.per.second", seconds > 0 ? count / seconds : 0D));
+        runContext.logger().info("Successfully sent {} rows in {} seconds", count, String.format("%.3f", seconds));
+
+        return Output.builder()
+            .rowCount(count)
+            .updatedCount(updated)
+            .build();
+    }
+
+    /**
+     * Binds the rows of a chunk and adds them to the batch of the statement.
+     */
+    static void addBatch(PreparedStatement ps, ParameterType parameterType, List<Object> rows, List<String> columns, AbstractCellConverter cellConverter, Connection connection) throws Exception {
+        for (Object row : rows) {
+            bind(ps, parameterType, values(row, columns), cellConverter, connection);
+            ps.addBatch();
+        }
+    }
+
+    private static List<Object> values(Object row, List<String> columns) {
+        if (row instanceof Map<?, ?> map) {
+            if (columns.isEmpty()) {
+                return new ArrayList<>(map.values());
+            }
+
+            return columns.stream().map(map::get).map(Object.class::cast).toList();
+        }
+
+        if (row instanceof List<?> list) {
+            return new ArrayList<>(list);
+        }
+
+        throw new IllegalArgumentException("Unsupported row of type '" + row.getClass().getName() + "', expected a map or a list");
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of rows sent")
+        private final Long rowCount;
+
+        @Schema(title = "Number of rows reported as updated by the driver")
+        private final Long updatedCount;
+    }
+}
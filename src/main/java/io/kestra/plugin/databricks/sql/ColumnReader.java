@@ -0,0 +1,12 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads a single column of the current row, resolved once per result set by {@link AbstractCellConverter#columnReader(int, String, java.sql.Connection)}.
+ */
+@FunctionalInterface
+interface ColumnReader {
+    Object read(ResultSet rs, int columnIndex) throws SQLException;
+}
@@ -0,0 +1,285 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JDBC connections shared by all the task executions of a worker, partitioned by connection key.
+ * <p>
+ * Each partition holds at most {@code maxSize} connections, borrowed or idle. Idle connections are reused
+ * most recently used first, validated before being handed over, and closed once idle for longer than {@code idleTimeout}.
+ * Each connection keeps its last {@code statementCacheSize} prepared statements open, so that a statement run again skips its parsing.
+ */
+@Slf4j
+final class ConnectionPool {
+    private static final ConnectionPool INSTANCE = new ConnectionPool();
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService evictor;
+
+    static ConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    record Settings(int maxSize, Duration idleTimeout, Duration maxWait, int statementCacheSize) {
+    }
+
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Borrows a connection of the partition {@code key}, waiting up to {@code maxWait} when all its connections are in use.
+     * The partition is created with the given settings on first use.
+     */
+    Lease borrow(String key, Settings settings, ConnectionFactory factory) throws SQLException, InterruptedException {
+        startEvictor();
+
+        Partition partition = partitions.computeIfAbsent(key, k -> new Partition(settings));
+        long start = System.nanoTime();
+
+        if (!partition.permits.tryAcquire(settings.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new SQLTimeoutException("No pooled connection available after " + settings.maxWait() + ", all " + settings.maxSize() + " connections are in use");
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = partition.idle.pollFirst()) != null) {
+                if (!pooled.isExpired(partition.settings.idleTimeout()) && pooled.isValid()) {
+                    return new Lease(partition, pooled, true, Duration.ofNanos(System.nanoTime() - start));
+                }
+                pooled.closeQuietly();
+            }
+
+            pooled = new PooledConnection(factory.create(), partition.settings.statementCacheSize());
+            return new Lease(partition, pooled, false, Duration.ofNanos(System.nanoTime() - start));
+        } catch (SQLException | RuntimeException e) {
+            partition.permits.release();
+            throw e;
+        }
+    }
+
+    private void startEvictor() {
+        if (evictor == null) {
+            synchronized (this) {
+                if (evictor == null) {
+                    evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "databricks-jdbc-pool-evictor");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    evictor.scheduleWithFixedDelay(this::evictIdle, EVICTION_INTERVAL.toMillis(), EVICTION_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    private void evictIdle() {
+        partitions.values().forEach(partition -> {
+            Iterator<PooledConnection> iterator = partition.idle.iterator();
+            while (iterator.hasNext()) {
+                PooledConnection pooled = iterator.next();
+                if (pooled.isExpired(partition.settings.idleTimeout()) && partition.idle.removeFirstOccurrence(pooled)) {
+                    pooled.closeQuietly();
+                }
+            }
+        });
+    }
+
+    private static final class Partition {
+        private final Settings settings;
+        private final Semaphore permits;
+        private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+        private Partition(Settings settings) {
+            this.settings = settings;
+            this.permits = new Semaphore(settings.maxSize(), true);
+        }
+    }
+
+    static final class PooledConnection {
+        private final Connection connection;
+        private final int statementCacheSize;
+        private final Map<String, PreparedStatement> statements;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledConnection(Connection connection, int statementCacheSize) {
+            this.connection = connection;
+            this.statementCacheSize = statementCacheSize;
+            // least recently used first, only accessed by the borrower of the connection
+            this.statements = new LinkedHashMap<>(16, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > statementCacheSize) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Prepares a statement, or reuses the cached one for the same SQL.
+         * Closing the returned statement clears its parameters and keeps it open in the cache.
+         */
+        PreparedStatement prepareStatement(String sql) throws SQLException {
+            if (statementCacheSize == 0) {
+                return connection.prepareStatement(sql);
+            }
+
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+
+            return cached(sql, statement);
+        }
+
+        /**
+         * Number of prepared statements kept open.
+         */
+        int cachedStatements() {
+            return statements.size();
+        }
+
+        private PreparedStatement cached(String sql, PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        try {
+                            statement.clearParameters();
+                        } catch (SQLException e) {
+                            statements.remove(sql, statement);
+                            closeQuietly(statement);
+                        }
+                        return null;
+                    }
+
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            );
+        }
+
+        private boolean isExpired(Duration idleTimeout) {
+            return System.nanoTime() - lastUsed > idleTimeout.toNanos();
+        }
+
+        private boolean isValid() {
+            try {
+                return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closeQuietly() {
+            statements.values().forEach(statement -> closeQuietly(statement));
+            statements.clear();
+
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Unable to close pooled connection", e);
+            }
+        }
+
+        private static void closeQuietly(PreparedStatement statement) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.debug("Unable to close cached statement", e);
+            }
+        }
+    }
+
+    /**
+     * A borrowed connection, given back to the pool when closed unless it was invalidated.
+     */
+    static final class Lease implements AutoCloseable {
+        private final Partition partition;
+        private final PooledConnection pooled;
+        private final boolean hit;
+        private final Duration waitDuration;
+        private boolean invalid = false;
+        private boolean closed = false;
+
+        private Lease(Partition partition, PooledConnection pooled, boolean hit, Duration waitDuration) {
+            this.partition = partition;
+            this.pooled = pooled;
+            this.hit = hit;
+            this.waitDuration = waitDuration;
+        }
+
+        Connection getConnection() {
+            return pooled.connection;
+        }
+
+        PooledConnection getPooledConnection() {
+            return pooled;
+        }
+
+        /**
+         * Whether an idle connection was reused, or a new one was opened.
+         */
+        boolean isHit() {
+            return hit;
+        }
+
+        Duration getWaitDuration() {
+            return waitDuration;
+        }
+
+        /**
+         * Closes the connection instead of giving it back to the pool, e.g. after a connection failure.
+         */
+        void invalidate() {
+            this.invalid = true;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (invalid) {
+                pooled.closeQuietly();
+            } else {
+                pooled.lastUsed = System.nanoTime();
+                partition.idle.offerFirst(pooled);
+            }
+            partition.permits.release();
+        }
+    }
+}
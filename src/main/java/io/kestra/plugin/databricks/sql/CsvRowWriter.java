@@ -0,0 +1,135 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Writes rows as comma separated values, with a header line for each result set when enabled.
+ * <p>
+ * Nulls are empty fields, binaries are Base64 encoded, timestamps use the ISO-8601 offset format,
+ * and nested values are written as JSON.
+ */
+final class CsvRowWriter implements RowWriter {
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+
+    private final Writer writer;
+    private final boolean header;
+    private Object columns;
+    private long count = 0;
+
+    CsvRowWriter(OutputStream outputStream, boolean header) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.header = header;
+    }
+
+    @Override
+    public void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+        if (header && decoder != columns) {
+            columns = decoder;
+            for (int i = 0; i < decoder.getColumnCount(); i++) {
+                writeField(i, decoder.getColumnName(i));
+            }
+            writer.write('\n');
+        }
+
+        for (int i = 0; i < decoder.getColumnCount(); i++) {
+            writeField(i, decoder.read(rs, i));
+        }
+        writer.write('\n');
+        count++;
+    }
+
+    @Override
+    public void write(String[] columnNames, Object[] values) throws IOException {
+        if (header && columnNames != columns) {
+            columns = columnNames;
+            for (int i = 0; i < columnNames.length; i++) {
+                writeField(i, columnNames[i]);
+            }
+            writer.write('\n');
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            writeField(i, values[i]);
+        }
+        writer.write('\n');
+        count++;
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    private void writeField(int index, Object value) throws IOException {
+        if (index > 0) {
+            writer.write(',');
+        }
+
+        if (value == null) {
+            return;
+        }
+
+        if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+        } else {
+            writeString(toString(value));
+        }
+    }
+
+    private static String toString(Object value) throws IOException {
+        if (value instanceof String string) {
+            return string;
+        } else if (value instanceof byte[] bytes) {
+            return Base64.getEncoder().encodeToString(bytes);
+        } else if (value instanceof ZonedDateTime dateTime) {
+            return dateTime.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } else if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } else if (value instanceof Map<?, ?> || value instanceof Collection<?>) {
+            return JSON_MAPPER.writeValueAsString(value);
+        }
+
+        return value.toString();
+    }
+
+    private void writeString(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the underlying stream belongs to the caller
+        writer.flush();
+    }
+}
@@ -0,0 +1,113 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+
+import com.databricks.sdk.service.sql.EditWarehouseRequest;
+import com.databricks.sdk.service.sql.EditWarehouseRequestWarehouseType;
+import com.databricks.sdk.service.sql.GetWarehouseResponse;
+import com.databricks.sdk.service.sql.State;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Scale a SQL warehouse up before a heavy batch of queries.",
+            full = true,
+            code = """
+                id: databricks_edit_warehouse
+                namespace: company.team
+
+                tasks:
+                  - id: scale_up
+                    type: io.kestra.plugin.databricks.sql.EditWarehouse
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    warehouseId: <your-warehouse>
+                    clusterSize: Large
+                    maxNumClusters: 4
+                    autoStopMins: 15
+                """
+        )
+    }
+)
+@Schema(
+    title = "Edit a SQL warehouse",
+    description = """
+        Changes the size, scaling or auto stop of a SQL warehouse through the Warehouses API, and by default waits for the change to be applied.
+        The properties not set keep their current value.
+        """
+)
+public class EditWarehouse extends AbstractWarehouseTask implements RunnableTask<AbstractWarehouseTask.Output> {
+    @Schema(title = "Size of the clusters of the warehouse", description = "e.g. 2X-Small, Small, Medium, Large")
+    @PluginProperty(group = "main")
+    private Property<String> clusterSize;
+
+    @Schema(title = "Minimum number of clusters", description = "Clusters kept running by the autoscaler")
+    @PluginProperty(group = "advanced")
+    private Property<Long> minNumClusters;
+
+    @Schema(title = "Maximum number of clusters", description = "Clusters the autoscaler can add to handle concurrent queries")
+    @PluginProperty(group = "advanced")
+    private Property<Long> maxNumClusters;
+
+    @Schema(title = "Auto stop minutes", description = "Idle minutes before the warehouse stops, 0 disables the auto stop")
+    @PluginProperty(group = "advanced")
+    private Property<Long> autoStopMins;
+
+    @Schema(title = "Whether the warehouse uses serverless compute")
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> enableServerlessCompute;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        String id = renderWarehouseId(runContext);
+        var warehouses = workspaceClient(runContext).warehouses();
+
+        // an edit replaces the whole configuration, the current one is sent back with the changes
+        GetWarehouseResponse current = warehouses.get(id);
+        var request = new EditWarehouseRequest()
+            .setId(id)
+            .setName(current.getName())
+            .setClusterSize(runContext.render(clusterSize).as(String.class).orElse(current.getClusterSize()))
+            .setMinNumClusters(runContext.render(minNumClusters).as(Long.class).orElse(current.getMinNumClusters()))
+            .setMaxNumClusters(runContext.render(maxNumClusters).as(Long.class).orElse(current.getMaxNumClusters()))
+            .setAutoStopMins(runContext.render(autoStopMins).as(Long.class).orElse(current.getAutoStopMins()))
+            .setEnableServerlessCompute(runContext.render(enableServerlessCompute).as(Boolean.class).orElse(current.getEnableServerlessCompute()))
+            .setEnablePhoton(current.getEnablePhoton())
+            .setSpotInstancePolicy(current.getSpotInstancePolicy())
+            .setChannel(current.getChannel())
+            .setTags(current.getTags());
+        if (current.getWarehouseType() != null) {
+            request.setWarehouseType(EditWarehouseRequestWarehouseType.valueOf(current.getWarehouseType().name()));
+        }
+
+        runContext.logger().info("Editing warehouse {} in state {}", id, current.getState());
+        long start = System.nanoTime();
+        var wait = warehouses.edit(request);
+        // a stopped warehouse stays stopped, the change applies on its next start
+        State state = current.getState() == State.STOPPED ? warehouses.get(id).getState() : await(runContext, id, wait);
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        runContext.logger().info("Warehouse {} is {}", id, state);
+
+        return Output.builder().warehouseId(id).state(state).duration(duration).build();
+    }
+}
@@ -0,0 +1,247 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import com.databricks.sdk.service.sql.ColumnInfo;
+import com.databricks.sdk.service.sql.Disposition;
+import com.databricks.sdk.service.sql.ExecuteStatementRequest;
+import com.databricks.sdk.service.sql.ExecuteStatementRequestOnWaitTimeout;
+import com.databricks.sdk.service.sql.Format;
+import com.databricks.sdk.service.sql.StatementResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Metric;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.databricks.AbstractTask;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Run a large SQL query on a SQL warehouse and store its result in internal storage.",
+            full = true,
+            code = """
+                id: databricks_sql_execute_statement
+                namespace: company.team
+
+                tasks:
+                  - id: execute_statement
+                    type: io.kestra.plugin.databricks.sql.ExecuteStatement
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    warehouseId: <your-warehouse>
+                    sql: SELECT * FROM my_catalog.my_schema.my_table
+                    maxConcurrentDownloads: 8
+                """
+        ),
+        @Example(
+            title = "Submit a long running statement, then fetch its result in a separate task.",
+            full = true,
+            code = """
+                id: databricks_sql_submit_fetch
+                namespace: company.team
+
+                tasks:
+                  - id: submit
+                    type: io.kestra.plugin.databricks.sql.ExecuteStatement
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    warehouseId: <your-warehouse>
+                    sql: SELECT * FROM my_catalog.my_schema.my_table
+                    submitOnly: true
+
+                  - id: fetch
+                    type: io.kestra.plugin.databricks.sql.FetchResult
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    statementId: "{{ outputs.submit.statementId }}"
+                """
+        )
+    },
+    metrics = {
+        @Metric(name = "fetch.size", type = "counter", description = "Query result size"),
+        @Metric(name = "chunk.count", type = "counter", description = "Number of downloaded result chunks")
+    }
+)
+@Schema(
+    title = "Run a SQL statement with the Statement Execution API",
+    description = """
+        Submits a SQL statement to a SQL warehouse through the Databricks Statement Execution API and waits for its completion, unless submitOnly is set.
+        The result is fetched as external links: chunks are downloaded concurrently from cloud storage, then written in order to internal storage as an Ion text file.
+        Values are typed from the result schema: ARRAY, MAP and STRUCT values are parsed into lists and maps, intervals into durations or periods, and the other types without a dedicated conversion, e.g. dates and timestamps, are kept as their text.
+        """
+)
+public class ExecuteStatement extends AbstractTask implements RunnableTask<ExecuteStatement.Output> {
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    @NotNull
+    @Schema(title = "SQL warehouse identifier", description = "ID of the SQL warehouse that runs the statement")
+    @PluginProperty(group = "main")
+    private Property<String> warehouseId;
+
+    @NotNull
+    @Schema(title = "SQL statement to execute", description = "SQL text rendered with Flow variables before execution")
+    @PluginProperty(group = "main")
+    private Property<String> sql;
+
+    @Schema(title = "Default catalog for the statement")
+    @PluginProperty(group = "connection")
+    private Property<String> catalog;
+
+    @Schema(title = "Default schema for the statement")
+    @PluginProperty(group = "connection")
+    private Property<String> schema;
+
+    @Schema(
+        title = "Maximum number of concurrent chunk downloads",
+        description = "Each in-flight chunk is spooled to the working directory before being written to the output"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxConcurrentDownloads = Property.ofValue(4);
+
+    @Schema(
+        title = "Only submit the statement",
+        description = """
+            When true, the task returns the `statementId` as soon as the warehouse accepts the statement, without waiting for it nor fetching its result, so that no worker thread is held during a long execution.
+            Use a `io.kestra.plugin.databricks.sql.FetchResult` task to wait for the statement and store its result. Defaults to false.
+            """
+    )
+    @PluginProperty(group = "execution")
+    private Property<Boolean> submitOnly;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var statementExecution = workspaceClient(runContext).statementExecution();
+        boolean renderedSubmitOnly = runContext.render(submitOnly).as(Boolean.class).orElse(false);
+
+        StatementResponse response = statementExecution.executeStatement(
+            new ExecuteStatementRequest()
+                .setWarehouseId(runContext.render(warehouseId).as(String.class).orElseThrow())
+                .setStatement(runContext.render(sql).as(String.class).orElseThrow())
+                .setCatalog(runContext.render(catalog).as(String.class).orElse(null))
+                .setSchema(runContext.render(schema).as(String.class).orElse(null))
+                .setDisposition(Disposition.EXTERNAL_LINKS)
+                .setFormat(Format.JSON_ARRAY)
+                // 0s returns as soon as the statement is accepted
+                .setWaitTimeout(renderedSubmitOnly ? "0s" : "30s")
+                .setOnWaitTimeout(ExecuteStatementRequestOnWaitTimeout.CONTINUE)
+        );
+        String statementId = response.getStatementId();
+        runContext.logger().info("Statement submitted: {}", statementId);
+
+        if (renderedSubmitOnly) {
+            return Output.builder().statementId(statementId).build();
+        }
+
+        response = StatementResults.waitForCompletion(statementExecution, response, POLL_INTERVAL);
+
+        return StatementResults.store(runContext, statementExecution, response, runContext.render(maxConcurrentDownloads).as(Integer.class).orElse(4));
+    }
+
+    /**
+     * Reads a JSON_ARRAY chunk, an array of rows where each row is an array of values rendered as strings.
+     */
+    static class ChunkReader {
+        private final String[] columnNames;
+        private final List<Function<String, Object>> converters;
+
+        ChunkReader(List<ColumnInfo> columns) {
+            this.columnNames = columns.stream().map(ColumnInfo::getName).toArray(String[]::new);
+            this.converters = columns.stream().map(ChunkReader::converter).toList();
+        }
+
+        private static Function<String, Object> converter(ColumnInfo column) {
+            if (column.getTypeName() == null) {
+                return value -> value;
+            }
+
+            return switch (column.getTypeName()) {
+                case BYTE, SHORT, INT -> Integer::valueOf;
+                case LONG -> Long::valueOf;
+                case FLOAT, DOUBLE -> Double::valueOf;
+                case DECIMAL -> BigDecimal::new;
+                case BOOLEAN -> Boolean::valueOf;
+                case ARRAY, MAP, STRUCT -> ChunkReader::parseJson;
+                case INTERVAL -> AbstractCellConverter::interval;
+                default -> value -> value;
+            };
+        }
+
+        private static Object parseJson(String value) {
+            try {
+                return JSON_MAPPER.readValue(value, Object.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Invalid complex value in result chunk", e);
+            }
+        }
+
+        void read(InputStream inputStream, JacksonRowWriter writer) throws IOException {
+            try (JsonParser parser = JSON_MAPPER.getFactory().createParser(inputStream)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IOException("Invalid result chunk, expected an array of rows");
+                }
+
+                Object[] values = new Object[columnNames.length];
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    int index = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        String value = parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                        values[index] = value == null ? null : converters.get(index).apply(value);
+                        index++;
+                    }
+                    writer.write(columnNames, values);
+                }
+            }
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Statement identifier")
+        private final String statementId;
+
+        @Schema(
+            title = "Result file URI",
+            description = "Internal storage URI of the Ion text file containing fetched rows; not set when the statement returns no result or was only submitted"
+        )
+        private final URI uri;
+
+        @Schema(title = "Number of fetched rows", description = "Not set when the statement was only submitted")
+        private final Long size;
+    }
+}
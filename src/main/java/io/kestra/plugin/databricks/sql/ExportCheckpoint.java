@@ -0,0 +1,115 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.hash.Hashing;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.plugin.databricks.utils.Compression;
+
+/**
+ * Progress of a resumable export of {@link Query}, stored in the namespace KV store after each page.
+ * <p>
+ * It holds the key of the last row stored and the files of the pages already stored, so that a retry of the task
+ * starts after that key and returns all the files. A checkpoint of another query, connection target or page size,
+ * recognized by its fingerprint, is ignored.
+ */
+record ExportCheckpoint(String fingerprint, String lastKey, String keyType, List<URI> uris, List<Long> sizes) {
+    private static final String KEY_PREFIX = "databricks_export_";
+
+    static ExportCheckpoint start(String fingerprint) {
+        return new ExportCheckpoint(fingerprint, null, null, List.of(), List.of());
+    }
+
+    /**
+     * The default key, unique to the task run, which is kept by the retries and restarts of the execution.
+     */
+    static String key(RunContext runContext) throws Exception {
+        return KEY_PREFIX + runContext.render("{{ execution.id }}_{{ taskrun.id }}").replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    /**
+     * @param target the connection target, with a hash of the credentials and JDBC properties, see {@link AbstractJdbcTask#poolKey}
+     */
+    static String fingerprint(String target, String sql, String keyColumn, int pageSize, OutputFormat format, Compression compression) {
+        return Hashing.sha256()
+            .hashString(target + "\n" + keyColumn + "\n" + pageSize + "\n" + format + "\n" + compression + "\n" + sql, StandardCharsets.UTF_8)
+            .toString();
+    }
+
+    static Optional<ExportCheckpoint> get(RunContext runContext, String key) throws IOException {
+        Optional<KVValue> value = kvStore(runContext).getValue(key);
+        if (value.isEmpty() || !(value.get().value() instanceof Map<?, ?> map)) {
+            return Optional.empty();
+        }
+
+        List<URI> uris = new ArrayList<>();
+        if (map.get("uris") instanceof List<?> list) {
+            list.forEach(uri -> uris.add(URI.create(uri.toString())));
+        }
+        List<Long> sizes = new ArrayList<>();
+        if (map.get("sizes") instanceof List<?> list) {
+            list.forEach(size -> sizes.add(((Number) size).longValue()));
+        }
+
+        return Optional.of(new ExportCheckpoint(
+            String.valueOf(map.get("fingerprint")),
+            String.valueOf(map.get("lastKey")),
+            String.valueOf(map.get("keyType")),
+            uris,
+            sizes
+        ));
+    }
+
+    void put(RunContext runContext, String key, Duration ttl) throws IOException {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("fingerprint", fingerprint);
+        value.put("lastKey", lastKey);
+        value.put("keyType", keyType);
+        value.put("uris", uris.stream().map(URI::toString).toList());
+        value.put("sizes", sizes);
+        value.put("size", size());
+
+        kvStore(runContext).put(key, new KVValueAndMetadata(new KVMetadata("Checkpoint of a Databricks query export", ttl), value));
+    }
+
+    static void delete(RunContext runContext, String key) throws IOException {
+        kvStore(runContext).delete(key);
+    }
+
+    /**
+     * The checkpoint once a page ending with the row of {@code lastKey} is stored in {@code pageUris}.
+     */
+    ExportCheckpoint next(String lastKey, String keyType, List<URI> pageUris, List<Long> pageSizes) {
+        List<URI> nextUris = new ArrayList<>(uris);
+        nextUris.addAll(pageUris);
+        List<Long> nextSizes = new ArrayList<>(sizes);
+        nextSizes.addAll(pageSizes);
+
+        return new ExportCheckpoint(fingerprint, lastKey, keyType, nextUris, nextSizes);
+    }
+
+    boolean resumed() {
+        return lastKey != null;
+    }
+
+    long size() {
+        return sizes.stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static KVStore kvStore(RunContext runContext) {
+        return runContext.namespaceKv(runContext.flowInfo().namespace());
+    }
+}
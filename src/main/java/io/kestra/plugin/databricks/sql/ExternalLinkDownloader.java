@@ -0,0 +1,107 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads the result chunks of a statement from their external links with a bounded number of concurrent downloads,
+ * and hands them over in chunk order.
+ * <p>
+ * Downloaded chunks are spooled to files in a working directory, so at most {@code concurrency} chunks are kept on disk at the same time.
+ */
+final class ExternalLinkDownloader {
+    private final HttpClient httpClient;
+    private final int concurrency;
+    private final Path directory;
+
+    ExternalLinkDownloader(HttpClient httpClient, int concurrency, Path directory) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, got " + concurrency);
+        }
+
+        this.httpClient = httpClient;
+        this.concurrency = concurrency;
+        this.directory = directory;
+    }
+
+    record Link(URI uri, Map<String, String> headers) {
+    }
+
+    @FunctionalInterface
+    interface LinkResolver {
+        /**
+         * Resolves the link of a chunk, called right before it is downloaded as links expire.
+         */
+        Link resolve(long chunkIndex) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface ChunkConsumer {
+        void accept(long chunkIndex, InputStream inputStream) throws Exception;
+    }
+
+    public void download(long chunkCount, LinkResolver resolver, ChunkConsumer consumer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        try {
+            Deque<Future<Path>> window = new ArrayDeque<>();
+            long next = 0;
+
+            for (long index = 0; index < chunkCount; index++) {
+                while (next < chunkCount && window.size() < concurrency) {
+                    long chunkIndex = next++;
+                    window.add(executor.submit(() -> fetch(chunkIndex, resolver.resolve(chunkIndex))));
+                }
+
+                Path file = await(window.poll());
+                try (InputStream inputStream = Files.newInputStream(file)) {
+                    consumer.accept(index, inputStream);
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Path fetch(long chunkIndex, Link link) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(link.uri()).GET();
+        if (link.headers() != null) {
+            link.headers().forEach(request::header);
+        }
+
+        Path file = Files.createTempFile(directory, "chunk-" + chunkIndex + "-", ".part");
+        HttpResponse<Path> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofFile(file));
+        if (response.statusCode() != 200) {
+            Files.deleteIfExists(file);
+            throw new IOException("Unable to download result chunk " + chunkIndex + ", server responded with HTTP " + response.statusCode());
+        }
+
+        return file;
+    }
+
+    private static Path await(Future<Path> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+
+import com.databricks.sdk.service.sql.StatementResponse;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Metric;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.databricks.AbstractTask;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Submit a long running statement, then wait for it and store its result.",
+            full = true,
+            code = """
+                id: databricks_sql_fetch_result
+                namespace: company.team
+
+                tasks:
+                  - id: submit
+                    type: io.kestra.plugin.databricks.sql.ExecuteStatement
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    warehouseId: <your-warehouse>
+                    sql: SELECT * FROM my_catalog.my_schema.my_table
+                    submitOnly: true
+
+                  - id: fetch
+                    type: io.kestra.plugin.databricks.sql.FetchResult
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    statementId: "{{ outputs.submit.statementId }}"
+                    pollInterval: PT30S
+                """
+        )
+    },
+    metrics = {
+        @Metric(name = "fetch.size", type = "counter", description = "Query result size"),
+        @Metric(name = "chunk.count", type = "counter", description = "Number of downloaded result chunks")
+    }
+)
+@Schema(
+    title = "Fetch the result of a submitted SQL statement",
+    description = """
+        Waits for a statement submitted with the Statement Execution API, e.g. by `io.kestra.plugin.databricks.sql.ExecuteStatement` with submitOnly, then stores its result like ExecuteStatement.
+        The statement is polled through the REST API only, no JDBC connection is held while it runs; a statement that failed or was canceled fails the task.
+        The result of a statement stays available for a limited time after its completion, see the Databricks documentation of the Statement Execution API.
+        """
+)
+public class FetchResult extends AbstractTask implements RunnableTask<ExecuteStatement.Output> {
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(10);
+
+    @NotNull
+    @Schema(title = "Statement identifier", description = "The `statementId` output of the task that submitted the statement")
+    @PluginProperty(group = "main")
+    private Property<String> statementId;
+
+    @Schema(title = "Interval between two status checks of the statement", description = "Defaults to PT10S")
+    @PluginProperty(group = "execution")
+    private Property<Duration> pollInterval;
+
+    @Schema(
+        title = "Maximum number of concurrent chunk downloads",
+        description = "Each in-flight chunk is spooled to the working directory before being written to the output; defaults to 4"
+    )
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxConcurrentDownloads;
+
+    @Override
+    public ExecuteStatement.Output run(RunContext runContext) throws Exception {
+        var statementExecution = workspaceClient(runContext).statementExecution();
+        String renderedStatementId = runContext.render(statementId).as(String.class).orElseThrow();
+        Duration renderedPollInterval = runContext.render(pollInterval).as(Duration.class).orElse(DEFAULT_POLL_INTERVAL);
+
+        StatementResponse response = statementExecution.getStatement(renderedStatementId);
+        if (StatementResults.isRunning(response)) {
+            runContext.logger().info("Waiting for statement {} in state {}", renderedStatementId, response.getStatus().getState());
+        }
+        response = StatementResults.waitForCompletion(statementExecution, response, renderedPollInterval);
+
+        return StatementResults.store(runContext, statementExecution, response, runContext.render(maxConcurrentDownloads).as(Integer.class).orElse(4));
+    }
+}
@@ -0,0 +1,114 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.ion.IonFactory;
+
+/**
+ * Writes rows as newline-delimited Ion or JSON values through a single generator for the whole result.
+ * <p>
+ * Cells are written from the {@link ResultSet} as they are read, without building a map or a string per row,
+ * and the output is the same as writing each row map with {@link ObjectMapper#writeValueAsString(Object)} followed by a new line.
+ */
+final class JacksonRowWriter implements RowWriter {
+    private final OutputStream outputStream;
+    private final JsonGenerator generator;
+    private final ObjectWriter valueWriter;
+    private final boolean suppressNulls;
+    private long count = 0;
+
+    JacksonRowWriter(ObjectMapper mapper, OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        // the Ion writer closes its target when closed, the trailing new line is written after it
+        this.generator = mapper.getFactory().createGenerator(CloseShieldOutputStream.wrap(outputStream), JsonEncoding.UTF8);
+        if (!(mapper.getFactory() instanceof IonFactory)) {
+            // the Ion writer already puts top level values on their own line
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+        this.valueWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        JsonInclude.Include inclusion = mapper.getSerializationConfig().getDefaultPropertyInclusion(Map.class).getContentInclusion();
+        this.suppressNulls = inclusion != JsonInclude.Include.ALWAYS && inclusion != JsonInclude.Include.USE_DEFAULTS;
+    }
+
+    @Override
+    public void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+        generator.writeStartObject();
+
+        for (int i = 0; i < decoder.getColumnCount(); i++) {
+            Object value = decoder.read(rs, i);
+            if (value == null && suppressNulls) {
+                continue;
+            }
+
+            generator.writeFieldName(decoder.getColumnName(i));
+            writeValue(value);
+        }
+
+        generator.writeEndObject();
+        count++;
+    }
+
+    @Override
+    public void write(String[] columnNames, Object[] values) throws IOException {
+        generator.writeStartObject();
+
+        for (int i = 0; i < columnNames.length; i++) {
+            if (values[i] == null && suppressNulls) {
+                continue;
+            }
+
+            generator.writeFieldName(columnNames[i]);
+            writeValue(values[i]);
+        }
+
+        generator.writeEndObject();
+        count++;
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    private void writeValue(Object value) throws IOException {
+        // the most frequent types are written directly, the others use the mapper serializers
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String string) {
+            generator.writeString(string);
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            valueWriter.writeValue(generator, value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+
+        // top level values are already separated, only the last line must be terminated
+        if (count > 0) {
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
+}
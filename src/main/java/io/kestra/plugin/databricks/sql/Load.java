@@ -0,0 +1,332 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.sql.ResultSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.databricks.sdk.service.files.FilesAPI;
+import com.databricks.sdk.service.files.UploadRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Metric;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.utils.IdUtils;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Load the result of a query into a Delta table through a Unity Catalog volume.",
+            full = true,
+            code = """
+                id: databricks_sql_load
+                namespace: company.team
+
+                tasks:
+                  - id: extract
+                    type: io.kestra.plugin.jdbc.postgresql.Query
+                    url: jdbc:postgresql://<your-host>:5432/
+                    username: "{{ secret('POSTGRES_USERNAME') }}"
+                    password: "{{ secret('POSTGRES_PASSWORD') }}"
+                    sql: SELECT * FROM orders
+                    fetchType: STORE
+
+                  - id: load
+                    type: io.kestra.plugin.databricks.sql.Load
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    from: "{{ outputs.extract.uri }}"
+                    volumePath: /Volumes/my_catalog/my_schema/staging
+                    table: my_catalog.my_schema.orders
+                    copyOptions:
+                      mergeSchema: "true"
+                """
+        )
+    },
+    metrics = {
+        @Metric(name = "records", type = "counter", description = "Number of rows loaded into the table"),
+        @Metric(name = "file.size", type = "counter", description = "Size of the staged file")
+    }
+)
+@Schema(
+    title = "Load a file into a Databricks table with COPY INTO",
+    description = """
+        Uploads a file from Kestra internal storage to a Unity Catalog volume with the Files API, then ingests it into the target table with `COPY INTO` over the JDBC connection.
+        Ion files, the Kestra internal format, are converted on the fly to JSON lines while being uploaded. The staged file is deleted once loaded unless `deleteStagedFile` is false.
+        """
+)
+public class Load extends AbstractJdbcTask implements RunnableTask<Load.Output> {
+    private static final ObjectWriter JSON_WRITER = JacksonMapper.ofJson().writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private static final int PIPE_SIZE = 1024 * 1024;
+
+    @NotNull
+    @Schema(title = "Source file URI", description = "Kestra internal storage URI of the file to load")
+    @PluginProperty(internalStorageURI = true, group = "main")
+    private Property<String> from;
+
+    @NotNull
+    @Schema(title = "Staging volume directory", description = "Unity Catalog volume directory where the file is staged, e.g. /Volumes/my_catalog/my_schema/staging")
+    @PluginProperty(group = "main")
+    private Property<String> volumePath;
+
+    @NotNull
+    @Schema(title = "Target table", description = "Fully qualified name of the table to load, e.g. my_catalog.my_schema.my_table")
+    @PluginProperty(group = "main")
+    private Property<String> table;
+
+    @Schema(title = "Format of the source file", description = "Inferred from the file extension when not set")
+    @PluginProperty(group = "main")
+    private Property<FileFormat> format;
+
+    @Schema(title = "COPY INTO format options", description = "Passed as FORMAT_OPTIONS, e.g. header or delimiter for CSV files")
+    @PluginProperty(group = "advanced")
+    private Property<Map<String, String>> formatOptions;
+
+    @Schema(title = "COPY INTO copy options", description = "Passed as COPY_OPTIONS, e.g. mergeSchema or force")
+    @PluginProperty(group = "advanced")
+    private Property<Map<String, String>> copyOptions;
+
+    @Schema(title = "Delete the staged file after the load")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Boolean> deleteStagedFile = Property.ofValue(true);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        URI from = URI.create(runContext.render(this.from).as(String.class).orElseThrow());
+        FileFormat renderedFormat = runContext.render(format).as(FileFormat.class).orElseGet(() -> FileFormat.of(from));
+        String stagedPath = runContext.render(volumePath).as(String.class).orElseThrow().replaceAll("/+$", "") + "/" + IdUtils.create() + renderedFormat.stagedExtension();
+
+        var files = workspaceClient(runContext).files();
+        runContext.logger().info("Staging {} to {}", from, stagedPath);
+        long stagedSize = stage(runContext, files, from, renderedFormat, stagedPath);
+        runContext.metric(Counter.of("file.size", stagedSize));
+
+        try {
+            String copyInto = copyInto(runContext, stagedPath, renderedFormat);
+            runContext.logger().debug("Starting load: {}", copyInto);
+
+            try (
+                var lease = connection(runContext);
+                var stmt = lease.getConnection().createStatement()
+            ) {
+                Long affectedRows = null;
+                Long insertedRows = null;
+                if (stmt.execute(copyInto)) {
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(zoneId(runContext)), lease.getConnection());
+                        if (rs.next()) {
+                            Map<String, Object> row = decoder.decode(rs);
+                            affectedRows = toLong(row.get("num_affected_rows"));
+                            insertedRows = toLong(row.get("num_inserted_rows"));
+                        }
+                    }
+                }
+
+                if (affectedRows != null) {
+                    runContext.metric(Counter.of("records", affectedRows));
+                }
+
+                return Output.builder()
+                    .rowCount(affectedRows)
+                    .insertedCount(insertedRows)
+                    .stagedPath(runContext.render(deleteStagedFile).as(Boolean.class).orElse(true) ? null : stagedPath)
+                    .build();
+            }
+        } finally {
+            if (runContext.render(deleteStagedFile).as(Boolean.class).orElse(true)) {
+                files.delete(stagedPath);
+            }
+        }
+    }
+
+    private static long stage(RunContext runContext, FilesAPI files, URI from, FileFormat format, String stagedPath) throws Exception {
+        if (format != FileFormat.ION) {
+            try (CountingInputStream inputStream = new CountingInputStream(runContext.storage().getFile(from))) {
+                files.upload(new UploadRequest().setFilePath(stagedPath).setContents(inputStream).setOverwrite(true));
+                return inputStream.count;
+            }
+        }
+
+        // COPY INTO does not read Ion, rows are converted to JSON lines while being uploaded
+        PipedInputStream pipeIn = new PipedInputStream(PIPE_SIZE);
+        PipedOutputStream pipeOut = new PipedOutputStream(pipeIn);
+        // the conversion blocks on the pipe, it gets its own thread instead of one of the common pool
+        ExecutorService converter = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Void> conversion = CompletableFuture.runAsync(() -> {
+                try (
+                    OutputStream output = pipeOut;
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(from)), FileSerde.BUFFER_SIZE);
+                    JsonGenerator generator = JSON_WRITER.getFactory().createGenerator(output)
+                ) {
+                    generator.setRootValueSeparator(null);
+                    for (Object row : FileSerde.readAll(reader).toIterable()) {
+                        JSON_WRITER.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, converter);
+
+            long size;
+            try (CountingInputStream inputStream = new CountingInputStream(pipeIn)) {
+                files.upload(new UploadRequest().setFilePath(stagedPath).setContents(inputStream).setOverwrite(true));
+                size = inputStream.count;
+            }
+
+            try {
+                conversion.get();
+            } catch (ExecutionException e) {
+                // the upload only saw the rows converted before the failure
+                files.delete(stagedPath);
+                throw new IOException("Unable to convert " + from + " to JSON", e.getCause());
+            }
+
+            return size;
+        } finally {
+            converter.shutdownNow();
+        }
+    }
+
+    private String copyInto(RunContext runContext, String stagedPath, FileFormat format) throws Exception {
+        StringBuilder copyInto = new StringBuilder()
+            .append("COPY INTO ").append(runContext.render(table).as(String.class).orElseThrow())
+            .append(" FROM ").append(SqlLiterals.literal(stagedPath))
+            .append(" FILEFORMAT = ").append(format.copyIntoFormat());
+
+        var renderedFormatOptions = runContext.render(formatOptions).asMap(String.class, String.class);
+        if (!renderedFormatOptions.isEmpty()) {
+            copyInto.append(" FORMAT_OPTIONS ").append(options(renderedFormatOptions));
+        }
+        var renderedCopyOptions = runContext.render(copyOptions).asMap(String.class, String.class);
+        if (!renderedCopyOptions.isEmpty()) {
+            copyInto.append(" COPY_OPTIONS ").append(options(renderedCopyOptions));
+        }
+
+        return copyInto.toString();
+    }
+
+    private static String options(Map<String, String> options) {
+        return options.entrySet().stream()
+            .map(e -> SqlLiterals.literal(e.getKey()) + " = " + SqlLiterals.literal(e.getValue()))
+            .collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    public enum FileFormat {
+        CSV,
+        JSON,
+        PARQUET,
+        AVRO,
+        ION;
+
+        static FileFormat of(URI uri) {
+            String path = uri.getPath().toLowerCase(Locale.ROOT);
+            if (path.endsWith(".csv")) {
+                return CSV;
+            } else if (path.endsWith(".json") || path.endsWith(".jsonl")) {
+                return JSON;
+            } else if (path.endsWith(".parquet")) {
+                return PARQUET;
+            } else if (path.endsWith(".avro")) {
+                return AVRO;
+            } else if (path.endsWith(".ion")) {
+                return ION;
+            }
+
+            throw new IllegalArgumentException("Unable to infer the format of '" + uri + "', set the format property");
+        }
+
+        private String copyIntoFormat() {
+            return this == ION ? JSON.name() : name();
+        }
+
+        private String stagedExtension() {
+            return this == ION ? ".json" : "." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of rows loaded", description = "num_affected_rows reported by COPY INTO")
+        private final Long rowCount;
+
+        @Schema(title = "Number of rows inserted", description = "num_inserted_rows reported by COPY INTO")
+        private final Long insertedCount;
+
+        @Schema(title = "Path of the staged file", description = "Only set when the staged file is kept")
+        private final String stagedPath;
+    }
+}
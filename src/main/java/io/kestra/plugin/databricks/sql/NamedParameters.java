@@ -0,0 +1,101 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A SQL text with {@code :name} parameter markers, rewritten with JDBC {@code ?} markers and the parameter name of each of them.
+ * <p>
+ * Markers inside string literals, quoted identifiers and comments are left as they are, as well as {@code ::} casts
+ * and the {@code :} of semi-structured path access directly following a column, e.g. {@code raw:owner}.
+ */
+record NamedParameters(String sql, List<String> names) {
+    static NamedParameters parse(String sql) {
+        StringBuilder parsed = new StringBuilder(sql.length());
+        List<String> names = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = sql.charAt(i);
+
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = quoteEnd(sql, i, c);
+                parsed.append(sql, i, end);
+                i = end;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                end = end < 0 ? length : end;
+                parsed.append(sql, i, end);
+                i = end;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                parsed.append(sql, i, end);
+                i = end;
+            } else if (c == ':' && i + 1 < length && sql.charAt(i + 1) == ':') {
+                parsed.append("::");
+                i += 2;
+            } else if (c == ':' && i > 0 && isPathOperand(sql.charAt(i - 1))) {
+                // semi-structured path access like raw:owner or raw[0]:owner
+                parsed.append(c);
+                i++;
+            } else if (c == ':' && i + 1 < length && Character.isJavaIdentifierStart(sql.charAt(i + 1))) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(sql.charAt(end))) {
+                    end++;
+                }
+                names.add(sql.substring(i + 1, end));
+                parsed.append('?');
+                i = end;
+            } else {
+                parsed.append(c);
+                i++;
+            }
+        }
+
+        return new NamedParameters(parsed.toString(), List.copyOf(names));
+    }
+
+    /**
+     * The values of the markers in order, failing on a marker without value.
+     */
+    List<Object> values(Map<String, Object> parameters) {
+        List<Object> values = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (!parameters.containsKey(name)) {
+                throw new IllegalArgumentException("No value for the parameter '" + name + "'");
+            }
+            values.add(parameters.get(name));
+        }
+
+        return values;
+    }
+
+    private static boolean isPathOperand(char previous) {
+        return Character.isJavaIdentifierPart(previous) || previous == ']' || previous == '`';
+    }
+
+    private static int quoteEnd(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\' && quote != '`') {
+                // backslash escapes in Databricks string literals
+                i += 2;
+            } else if (c == quote) {
+                // a doubled quote is an escaped quote
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+
+        return sql.length();
+    }
+}
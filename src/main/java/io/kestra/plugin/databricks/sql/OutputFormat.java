@@ -0,0 +1,72 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Format of the file stored by {@link Query} when the fetch type is {@code STORE}.
+ */
+public enum OutputFormat {
+    /**
+     * One Ion value per line, the format read by the other Kestra tasks.
+     */
+    ION(".ion"),
+    /**
+     * One JSON object per line.
+     */
+    JSON(".jsonl"),
+    /**
+     * Comma separated values with a header line, quoted as described in RFC 4180.
+     */
+    CSV(".csv"),
+    /**
+     * An Avro object container file, with a record schema typed from the columns of the result.
+     */
+    AVRO(".avro"),
+    /**
+     * A Parquet file, with the schema of the Avro format.
+     */
+    PARQUET(".parquet"),
+    /**
+     * An Arrow IPC file, with the columns typed like in the Avro format.
+     */
+    ARROW(".arrow");
+
+    private static final ObjectMapper ION_MAPPER = JacksonMapper.ofIon();
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+
+    private final String extension;
+
+    OutputFormat(String extension) {
+        this.extension = extension;
+    }
+
+    String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Creates a writer of the rows to the output, {@code header} tells whether the CSV header line is written.
+     */
+    RowWriter writer(OutputStream outputStream, boolean header) throws IOException {
+        return switch (this) {
+            case ION -> new JacksonRowWriter(ION_MAPPER, outputStream);
+            case JSON -> new JacksonRowWriter(JSON_MAPPER, outputStream);
+            case CSV -> new CsvRowWriter(outputStream, header);
+            case AVRO -> new AvroRowWriter(outputStream);
+            case PARQUET -> new ParquetRowWriter(outputStream, ParquetRowWriter.DEFAULT_ROW_GROUP_SIZE, true);
+            case ARROW -> new ArrowRowWriter(outputStream);
+        };
+    }
+
+    /**
+     * Whether rows serialized separately can be concatenated, which is not the case of the formats with a single schema per file.
+     */
+    boolean isConcatenable() {
+        return this == ION || this == JSON || this == CSV;
+    }
+}
@@ -23,6 +23,22 @@ class ParameterType {
         return parameterType;
     }
 
+    public int getCount() {
+        return this.cls.size();
+    }
+
+    /**
+     * Whether the value can be bound with the type reported for the parameter, a null value only when its SQL type is known.
+     */
+    public boolean accepts(int index, Object value) {
+        Class<?> parameterClass = this.cls.get(index);
+        if (parameterClass == null) {
+            return false;
+        }
+
+        return value == null ? this.types.get(index) != null : parameterClass.isInstance(value);
+    }
+
     public Class<?> getClass(int index) {
         return this.cls.get(index);
     }
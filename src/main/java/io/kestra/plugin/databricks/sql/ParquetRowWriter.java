@@ -0,0 +1,164 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+/**
+ * Writes rows as a Parquet file, through the Avro schema of the {@link AvroRowWriter} so that both formats type the columns the same way.
+ * <p>
+ * Rows are buffered in memory up to the row group size before being written, so a byte limit on the file is only checked once a row group is flushed.
+ * Pages are not compressed by Parquet, the compression of the task applies to the whole file.
+ */
+final class ParquetRowWriter implements RowWriter {
+    static final long DEFAULT_ROW_GROUP_SIZE = 128L * 1024 * 1024;
+
+    private final OutputStream outputStream;
+    private final long rowGroupSize;
+    private final boolean dictionaryEncoding;
+    private ParquetWriter<GenericRecord> writer;
+    private ResultColumns columns;
+    private Schema schema;
+    private Schema[] types;
+    private long count = 0;
+
+    ParquetRowWriter(OutputStream outputStream, long rowGroupSize, boolean dictionaryEncoding) {
+        this.outputStream = outputStream;
+        this.rowGroupSize = rowGroupSize;
+        this.dictionaryEncoding = dictionaryEncoding;
+    }
+
+    @Override
+    public void start(ResultColumns columns) throws IOException {
+        if (columns == this.columns) {
+            return;
+        }
+        if (writer != null) {
+            throw new IOException("A Parquet file holds a single result set, the statement returned several");
+        }
+
+        this.columns = columns;
+        schema = AvroRowWriter.schema(columns);
+        types = AvroRowWriter.types(schema);
+        writer = AvroParquetWriter.<GenericRecord>builder(new StreamOutputFile(outputStream))
+            .withSchema(schema)
+            .withConf(new PlainParquetConfiguration())
+            .withRowGroupSize(rowGroupSize)
+            .withDictionaryEncoding(dictionaryEncoding)
+            .withCompressionCodec(CompressionCodecName.UNCOMPRESSED)
+            .build();
+    }
+
+    @Override
+    public void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+        start(decoder.getColumns());
+
+        GenericRecord record = new GenericData.Record(schema);
+        for (int i = 0; i < types.length; i++) {
+            record.put(i, AvroRowWriter.value(types[i], decoder.read(rs, i)));
+        }
+        append(record);
+    }
+
+    @Override
+    public void write(String[] columnNames, Object[] values) throws IOException {
+        if (writer == null) {
+            throw new IOException("The columns of a Parquet file must be described before its rows");
+        }
+
+        GenericRecord record = new GenericData.Record(schema);
+        for (int i = 0; i < values.length; i++) {
+            record.put(i, AvroRowWriter.value(types[i], values[i]));
+        }
+        append(record);
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    private void append(GenericRecord record) throws IOException {
+        writer.write(record);
+        count++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            // writes the buffered row group and the footer
+            writer.close();
+        }
+    }
+
+    /**
+     * The output of the writer as a Parquet file, written sequentially and never closed as it belongs to the caller.
+     */
+    private static final class StreamOutputFile implements OutputFile {
+        private final OutputStream outputStream;
+
+        private StreamOutputFile(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position = 0;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    outputStream.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    outputStream.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    outputStream.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    outputStream.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
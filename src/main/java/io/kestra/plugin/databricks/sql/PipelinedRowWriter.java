@@ -0,0 +1,196 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Writes rows with the fetch, the serialization and the write to the output running concurrently.
+ * <p>
+ * The calling thread reads the cells of each row from the {@link ResultSet} into batches,
+ * a pool of threads serializes the batches, and a writer thread appends them to the output in fetch order.
+ * They are connected by a bounded queue, so at most {@code 2 * threads} batches are in memory.
+ * The output is the same as the one of the sequential writer of the {@link OutputFormat}.
+ */
+final class PipelinedRowWriter implements RowWriter {
+    private static final CompletableFuture<byte[]> END = CompletableFuture.completedFuture(new byte[0]);
+
+    static final String THREAD_PREFIX = "databricks-pipeline-";
+
+    private final OutputFormat format;
+    private final int batchSize;
+    private final ExecutorService serializers;
+    private final ExecutorService writer;
+    private final BlockingQueue<Future<byte[]>> queue;
+    private final Future<?> writerFuture;
+
+    private RowDecoder decoder;
+    private String[] columnNames;
+    private boolean newColumns;
+    private List<Object[]> batch;
+    private long count = 0;
+
+    PipelinedRowWriter(OutputFormat format, OutputStream outputStream, int threads, int batchSize) {
+        if (!format.isConcatenable()) {
+            // batches are serialized separately and concatenated, while these files have a single schema
+            throw new IllegalArgumentException("The " + format + " format can't be written by a pipeline");
+        }
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Threads and batch size must be at least 1, got " + threads + " and " + batchSize);
+        }
+
+        this.format = format;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+        this.serializers = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat(THREAD_PREFIX + "serializer-%d").build());
+        this.writer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(THREAD_PREFIX + "writer-%d").build());
+        this.queue = new ArrayBlockingQueue<>(2 * threads);
+        this.writerFuture = writer.submit(() -> {
+            Future<byte[]> next;
+            while ((next = queue.take()) != END) {
+                outputStream.write(next.get());
+            }
+            outputStream.flush();
+            return null;
+        });
+    }
+
+    @Override
+    public void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+        // a new result set of the statement starts a new batch as its columns may differ
+        if (decoder != this.decoder) {
+            String[] names = new String[decoder.getColumnCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = decoder.getColumnName(i);
+            }
+            startColumns(names);
+            this.decoder = decoder;
+        }
+
+        Object[] values = new Object[columnNames.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = decoder.read(rs, i);
+        }
+
+        add(values);
+    }
+
+    @Override
+    public void write(String[] columnNames, Object[] values) throws IOException {
+        if (columnNames != this.columnNames) {
+            startColumns(columnNames);
+            this.decoder = null;
+        }
+
+        add(values);
+    }
+
+    private void startColumns(String[] names) throws IOException {
+        submit();
+        this.columnNames = names;
+        this.newColumns = true;
+    }
+
+    private void add(Object[] values) throws IOException {
+        batch.add(values);
+        count++;
+
+        if (batch.size() >= batchSize) {
+            submit();
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    private void submit() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        String[] names = columnNames;
+        List<Object[]> rows = batch;
+        // only the first batch of a result set carries the header, if the format has one
+        boolean header = newColumns;
+        batch = new ArrayList<>(batchSize);
+        newColumns = false;
+
+        enqueue(serializers.submit(() -> serialize(names, rows, header)));
+    }
+
+    private byte[] serialize(String[] names, List<Object[]> rows, boolean header) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (RowWriter rowWriter = format.writer(output, header)) {
+            for (Object[] row : rows) {
+                rowWriter.write(names, row);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    private void enqueue(Future<byte[]> future) throws IOException {
+        try {
+            // the queue only drains while the writer is alive
+            while (!queue.offer(future, 100, TimeUnit.MILLISECONDS)) {
+                if (writerFuture.isDone()) {
+                    awaitWriter();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing rows", e);
+        }
+    }
+
+    private void awaitWriter() throws IOException {
+        try {
+            writerFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing rows", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExecutionException serialization && serialization.getCause() != null) {
+                throw new IOException("Unable to serialize rows", serialization.getCause());
+            }
+            throw new IOException("Unable to write rows", e.getCause());
+        }
+    }
+
+    /**
+     * Interrupts the serializers and the writer thread, which may be waiting for the next batch.
+     */
+    @Override
+    public void abort() {
+        serializers.shutdownNow();
+        writer.shutdownNow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            submit();
+            enqueue(END);
+            awaitWriter();
+        } finally {
+            serializers.shutdownNow();
+            writer.shutdownNow();
+        }
+    }
+}
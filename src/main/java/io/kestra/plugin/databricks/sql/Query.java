@@ -1,38 +1,41 @@
 package io.kestra.plugin.databricks.sql;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.time.ZoneId;
-import java.util.LinkedHashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.TimeZone;
-import java.util.function.Consumer;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import com.databricks.client.jdbc.Driver;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.databricks.sdk.service.sql.QueryInfo;
+import com.databricks.sdk.service.sql.State;
 
-import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Metric;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
-import io.kestra.core.models.tasks.Task;
+import io.kestra.core.models.tasks.common.FetchType;
 import io.kestra.core.runners.RunContext;
-import io.kestra.core.serializers.JacksonMapper;
-import io.kestra.core.utils.Rethrow;
+import io.kestra.plugin.databricks.utils.Compression;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -41,8 +44,6 @@ import lombok.experimental.SuperBuilder;
 import io.kestra.core.models.annotations.PluginProperty;
 
 /**
- * For more information on the JDBC drivers see <a href="https://docs.databricks.com/integrations/jdbc-odbc-bi.html#jdbc-driver">JDBC Driver</a>.
- *
  * FIXME some part are copied from the plugin-jdbc, maybe we need to find a way to avoid copying and share more stuff
  */
 @SuperBuilder
@@ -66,185 +67,1193 @@ import io.kestra.core.models.annotations.PluginProperty;
                     httpPath: <your-httpPath>
                     sql: SELECT 1
                 """
+        ),
+        @Example(
+            title = "Fetch a single row in the task outputs instead of storing the result in a file.",
+            full = true,
+            code = """
+                id: databricks_sql_count
+                namespace: company.team
+
+                tasks:
+                  - id: count
+                    type: io.kestra.plugin.databricks.sql.Query
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    sql: SELECT count(*) AS total FROM my_catalog.my_schema.my_table
+                    fetchType: FETCH_ONE
+                    connectionPool:
+                      enabled: true
+
+                  - id: log
+                    type: io.kestra.plugin.core.log.Log
+                    message: "{{ outputs.count.row.total }}"
+                """
+        ),
+        @Example(
+            title = "Store the result as a CSV file with a header line.",
+            full = true,
+            code = """
+                id: databricks_sql_csv
+                namespace: company.team
+
+                tasks:
+                  - id: export
+                    type: io.kestra.plugin.databricks.sql.Query
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    sql: SELECT * FROM my_catalog.my_schema.my_table
+                    outputFormat: CSV
+                """
+        ),
+        @Example(
+            title = "Bind values to named parameters instead of rendering them into the SQL text.",
+            full = true,
+            code = """
+                id: databricks_sql_parameters
+                namespace: company.team
+
+                inputs:
+                  - id: country
+                    type: STRING
+
+                tasks:
+                  - id: orders
+                    type: io.kestra.plugin.databricks.sql.Query
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    sql: SELECT * FROM my_catalog.my_schema.orders WHERE country = :country AND amount > :minAmount
+                    parameters:
+                      country: "{{ inputs.country }}"
+                      minAmount: 100
+                    connectionPool:
+                      enabled: true
+                """
+        ),
+        @Example(
+            title = "Export a large table by pages of one million rows, resuming after the last stored page when the task is retried.",
+            full = true,
+            code = """
+                id: databricks_sql_export
+                namespace: company.team
+
+                tasks:
+                  - id: export
+                    type: io.kestra.plugin.databricks.sql.Query
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    sql: SELECT * FROM my_catalog.my_schema.events
+                    compression: GZIP
+                    resumableExport:
+                      keyColumn: event_id
+                      pageSize: 1000000
+                    retry:
+                      type: constant
+                      interval: PT1M
+                      maxAttempts: 5
+                """
         )
     },
     metrics = {
-        @Metric(name = "fetch.size", type = "counter", description = "Query result size")
+        @Metric(name = "fetch.size", type = "counter", description = "Query result size"),
+        @Metric(name = "output.raw.bytes", type = "counter", description = "Size of the result file before compression, only with compression set"),
+        @Metric(name = "output.compressed.bytes", type = "counter", description = "Size of the stored result file after compression, only with compression set"),
+        @Metric(name = "output.files", type = "counter", description = "Number of result files, only with maxRowsPerFile or maxBytesPerFile set"),
+        @Metric(name = "partition.duration", type = "timer", description = "Duration of each partition, tagged with its index, only with partitionColumn set"),
+        @Metric(name = "partition.size", type = "counter", description = "Rows read by each partition, tagged with its index, only with partitionColumn set"),
+        @Metric(name = "export.pages", type = "counter", description = "Pages stored by the task run, only with resumableExport set"),
+        @Metric(name = "export.resumed.size", type = "counter", description = "Rows stored by a previous attempt and not read again, only with resumableExport set and a checkpoint found"),
+        @Metric(name = "pool.hit", type = "counter", description = "Connections reused from the worker pool, only with connectionPool enabled"),
+        @Metric(name = "pool.miss", type = "counter", description = "Connections opened because no idle pooled connection was available, only with connectionPool enabled"),
+        @Metric(name = "pool.wait", type = "timer", description = "Time spent waiting for a pooled connection, only with connectionPool enabled"),
+        @Metric(name = "cache.hit", type = "counter", description = "Results reused from the cache, only with cache enabled"),
+        @Metric(name = "cache.miss", type = "counter", description = "Queries executed because no valid cached result was found, only with cache enabled"),
+        @Metric(name = "cache.saved", type = "timer", description = "Duration of the original execution of a reused result, only with cache enabled"),
+        @Metric(name = "phase.connect", type = "timer", description = "Time to get a connection, including the pool wait, tagged with host, httpPath and outcome"),
+        @Metric(name = "phase.execute", type = "timer", description = "Time for the statement to return, including the warehouse queueing and startup, tagged with host, httpPath and outcome"),
+        @Metric(name = "phase.first.row", type = "timer", description = "Time from the statement return to the first row, tagged with host, httpPath and outcome"),
+        @Metric(name = "phase.fetch", type = "timer", description = "Time from the statement return to the last row, tagged with host, httpPath and outcome"),
+        @Metric(name = "phase.upload", type = "timer", description = "Time spent after the last row finishing and uploading the stored files, tagged with host, httpPath and outcome"),
+        @Metric(name = "fetch.rows.per.second", type = "counter", description = "Rows read per second during the fetch phase, tagged with host, httpPath and outcome"),
+        @Metric(name = "output.bytes.written", type = "counter", description = "Bytes of the stored files before compression, tagged with host, httpPath and outcome"),
+        @Metric(name = "output.bytes.uploaded", type = "counter", description = "Bytes uploaded to internal storage, tagged with host, httpPath and outcome"),
+        @Metric(name = "warehouse.warm.up", type = "counter", description = "1 when a start of the warehouse was requested, tagged with the warehouse state found, only with warmUp enabled"),
+        @Metric(name = "history.rows.produced", type = "counter", description = "Rows produced by the statement according to the query history, only with queryHistory enabled"),
+        @Metric(name = "history.read.bytes", type = "counter", description = "Bytes read by the statement according to the query history, only with queryHistory enabled"),
+        @Metric(name = "history.spill.bytes", type = "counter", description = "Bytes spilled to disk by the statement according to the query history, only with queryHistory enabled"),
+        @Metric(name = "history.compilation.time", type = "timer", description = "Compilation time of the statement according to the query history, only with queryHistory enabled"),
+        @Metric(name = "history.execution.time", type = "timer", description = "Execution time of the statement according to the query history, only with queryHistory enabled"),
+        @Metric(name = "history.queue.time", type = "timer", description = "Time the statement waited in the warehouse queues according to the query history, only with queryHistory enabled"),
+        @Metric(name = "history.total.time", type = "timer", description = "Total time of the statement according to the query history, only with queryHistory enabled"),
+        @Metric(name = "history.result.from.cache", type = "counter", description = "1 when the warehouse returned a cached result, only with queryHistory enabled")
     }
 )
 @Schema(
     title = "Run a SQL query on Databricks",
     description = """
         Executes a SQL statement on a Databricks cluster through the JDBC driver.
-        Renders connection values and SQL from the RunContext, then streams results to internal storage as an Ion text file.
-        Arrow is disabled with the Databricks JDBC driver on Java 21, which may reduce fetch throughput.
+        Renders connection values and SQL from the RunContext, then handles results according to fetchType: streamed to internal storage as an Ion, JSON lines, CSV, Avro, Parquet or Arrow file (STORE, default, see outputFormat), returned in the outputs (FETCH, FETCH_ONE) or ignored (NONE).
+        The Databricks JDBC driver can only use its Arrow result format on Java 21 when the worker JVM opens `java.nio`; see enableArrow.
         """
 )
-public class Query extends Task implements RunnableTask<Query.Output> {
-    private static final ObjectMapper MAPPER = JacksonMapper.ofIon();
+public class Query extends AbstractJdbcTask implements RunnableTask<Query.Output> {
+    private static final int DEFAULT_PIPELINE_THREADS = 2;
+
+    private static final int DEFAULT_PIPELINE_BATCH_SIZE = 1000;
+
+    private static final Duration DEFAULT_HISTORY_MAX_WAIT = Duration.ofMinutes(1);
+
+    private static final int DEFAULT_EXPORT_PAGE_SIZE = 1_000_000;
+
+    private static final Duration DEFAULT_EXPORT_CHECKPOINT_TTL = Duration.ofDays(7);
 
     @NotNull
-    @Schema(title = "Databricks host", description = "Server hostname without protocol, e.g. adb-12345.7.azuredatabricks.net")
+    @Schema(title = "SQL query to execute", description = "SQL text rendered with Flow variables before execution")
     @PluginProperty(group = "main")
-    private Property<String> host;
+    private Property<String> sql;
 
-    @NotNull
     @Schema(
-        title = "Databricks cluster HTTP Path",
-        description = "HTTP Path from the cluster connection details (Advanced options → JDBC/ODBC)."
+        title = "Values of the named parameters of the query",
+        description = """
+            Each `:name` marker of the SQL is replaced by a JDBC parameter and bound to the value of `name` through a prepared statement, instead of rendering values into the SQL text.
+            Markers inside string literals, quoted identifiers and comments are ignored, as well as `::` casts and semi-structured paths like `raw:owner`.
+            With connectionPool enabled, the prepared statements are cached on the pooled connection, see connectionPool.statementCacheSize.
+            """
     )
     @PluginProperty(group = "main")
-    private Property<String> httpPath;
+    private Property<Map<String, Object>> parameters;
 
-    @Schema(title = "Catalog used for the connection", description = "Sets ConnCatalog on the JDBC URL when provided")
+    @Schema(
+        title = "How to handle the query result",
+        description = """
+            STORE writes all rows to a file in internal storage, in the outputFormat, FETCH returns all rows in the `rows` output, FETCH_ONE returns the first row in the `row` output, NONE executes the statement without reading its result.
+            FETCH and FETCH_ONE keep rows in memory, use them for small results only.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<FetchType> fetchType = Property.ofValue(FetchType.STORE);
+
+    @Schema(
+        title = "Number of rows fetched per round trip",
+        description = "Hint passed to the JDBC statement; the driver default is used when not set"
+    )
     @PluginProperty(group = "advanced")
-    private Property<String> catalog;
+    private Property<Integer> fetchSize;
 
-    @Schema(title = "Schema used for the connection", description = "Sets ConnSchema on the JDBC URL when provided")
-    @PluginProperty(group = "connection")
-    private Property<String> schema;
+    @Schema(
+        title = "Maximum number of rows returned by the query",
+        description = "Rows beyond this limit are silently dropped by the driver; no limit when not set"
+    )
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxRows;
+
+    @Schema(
+        title = "Result cache configuration",
+        description = """
+            When enabled, a stored result is reused by the next executions of the same query on the same connection target, in the same namespace, instead of running it again.
+            Only results stored in internal storage (fetchType STORE) are cached.
+            """
+    )
+    @PluginProperty(group = "advanced")
+    private CacheConfig cache;
 
-    @Schema(title = "Databricks access token", description = "Personal Access Token passed as the JDBC password; render from secrets")
-    @PluginProperty(secret = true, group = "connection")
-    private Property<String> accessToken;
+    @Schema(
+        title = "Pipelined fetch configuration",
+        description = """
+            When enabled, storing the result (fetchType STORE) runs the fetch, the serialization and the write to the file on separate threads,
+            so that waiting for the warehouse and serializing rows overlap. Useful for large results.
+            """
+    )
+    @PluginProperty(group = "advanced")
+    private PipelineConfig pipeline;
 
-    @Schema(title = "Additional JDBC properties", description = "Optional map merged into the Databricks driver properties after authentication")
+    @Schema(
+        title = "Query history configuration",
+        description = """
+            When enabled, once the statement ended, it is looked up in the query history of the SQL warehouse to report its rows produced, bytes read, spill, compilation, execution and queue times and whether the result came from the warehouse cache, as metrics and in the `queryMetrics` output.
+            The statement is looked up by the id the JDBC driver gave it. When the driver does not expose it, the statement is matched by its SQL text among the queries of the warehouse started since the execution, and no metric is reported when several queries match. Only available for SQL warehouses, not partitioned queries.
+            """
+    )
     @PluginProperty(group = "advanced")
-    private Property<Map<String, String>> properties;
+    private QueryHistoryConfig queryHistory;
 
-    @NotNull
-    @Schema(title = "SQL query to execute", description = "SQL text rendered with Flow variables before execution")
-    @PluginProperty(group = "main")
-    private Property<String> sql;
+    @Schema(
+        title = "Format of the stored result file",
+        description = """
+            Only used when fetchType is STORE. ION writes one Ion value per line, the format read by the other Kestra tasks;
+            JSON writes one JSON object per line; CSV writes comma separated values with a header line, binaries Base64 encoded and nested values as JSON;
+            AVRO writes an Avro object container file whose fields are typed from the columns: decimals, dates and timestamps use the Avro logical types, while intervals and nested values are written as text.
+            PARQUET writes a Parquet file with the same schema, see `parquet`. ARROW writes an Arrow IPC file with the same types, which needs the worker JVM to be started with `--add-opens=java.base/java.nio=ALL-UNNAMED`.
+            AVRO, PARQUET and ARROW are not pipelined, and an empty result is still stored with its schema.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<OutputFormat> outputFormat = Property.ofValue(OutputFormat.ION);
+
+    @Schema(
+        title = "Parquet file configuration",
+        description = "Only used when outputFormat is PARQUET. Pages are not compressed by Parquet, the compression property applies to the whole file."
+    )
+    @PluginProperty(group = "destination")
+    private ParquetConfig parquet;
+
+    @Schema(
+        title = "Compression of the stored result file",
+        description = """
+            Only used when fetchType is STORE. The result is compressed while it is written and the codec extension is appended to the file name, for example `.ion.gz`.
+            GZIP is the most widely readable, ZSTD compresses better at a similar speed, LZ4 is the fastest.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<Compression> compression = Property.ofValue(Compression.NONE);
+
+    @Schema(
+        title = "Maximum number of rows per result file",
+        description = """
+            Only used when fetchType is STORE. When set, the result is split on row boundaries into several files, returned in the `uris` output with their row counts in `sizes`,
+            for example to process them in parallel with a ForEach. Each file is uploaded while the next one is written.
+            """
+    )
+    @PluginProperty(group = "destination")
+    private Property<Long> maxRowsPerFile;
+
+    @Schema(
+        title = "Maximum number of uncompressed bytes per result file",
+        description = """
+            Only used when fetchType is STORE, and can be combined with maxRowsPerFile. A new file is started once the rows written reach this size,
+            so a file can be larger by up to one row and the writer buffers.
+            """
+    )
+    @PluginProperty(group = "destination")
+    private Property<Long> maxBytesPerFile;
+
+    @Schema(
+        title = "Whether the result is uploaded to internal storage while it is fetched",
+        description = """
+            Only used when fetchType is STORE. The result is written straight to internal storage instead of a local temp file uploaded at the end,
+            so large exports need no local disk and the upload overlaps the fetch. Defaults to false, as some storage backends buffer the whole upload themselves.
+            """
+    )
+    @PluginProperty(group = "destination")
+    private Property<Boolean> streamToStorage;
+
+    @Schema(
+        title = "Numeric column used to split the query into partitions read in parallel",
+        description = """
+            When set, the query is run once per partition, each on its own connection and in parallel, with a range predicate on this column.
+            lowerBound and upperBound only define the ranges, rows outside of them are read by the first and the last partitions, and NULL values by the first one.
+            The query must be a single SELECT, it is wrapped as `SELECT * FROM (<sql>) WHERE <range>`. Only fetchType STORE and FETCH are supported,
+            with STORE each partition writes its own files, returned in the `uris` output.
+            """
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> partitionColumn;
+
+    @Schema(title = "Lower bound of the partitionColumn ranges", description = "Required with partitionColumn")
+    @PluginProperty(group = "execution")
+    private Property<Long> lowerBound;
+
+    @Schema(title = "Upper bound of the partitionColumn ranges", description = "Required with partitionColumn")
+    @PluginProperty(group = "execution")
+    private Property<Long> upperBound;
 
     @Schema(
-        title = "Time zone for temporal values",
-        description = "Timezone used when converting date/time columns; defaults to the worker JVM time zone"
+        title = "Number of partitions",
+        description = "Also the number of parallel connections; reduced when the bounds span fewer values. Required with partitionColumn; maxRows applies to each partition."
     )
     @PluginProperty(group = "execution")
-    private Property<String> timeZoneId;
+    private Property<Integer> numPartitions;
 
-    //TODO should we allow to fetch or do we design only for big data ?
+    @Schema(
+        title = "Resumable export configuration",
+        description = """
+            When set, the result is read by pages of pageSize rows ordered by keyColumn, each page being a query starting after the last key of the previous one, and stored in its own files, returned in the `uris` output.
+            After each page, the last key and the files stored so far are checkpointed in the namespace KV store, so that a retry or a restart of the task run continues after the last stored page instead of starting over; the checkpoint is deleted once the export succeeded.
+            The query must be a single SELECT, it is wrapped as `SELECT * FROM (<sql>) WHERE <key> > <last key> ORDER BY <key> LIMIT <pageSize>`. Only fetchType STORE is supported, without maxRows, partitionColumn or cache.
+            """
+    )
+    @PluginProperty(group = "execution")
+    private ResumableExportConfig resumableExport;
+
+    @Schema(
+        title = "Start the SQL warehouse before running the query",
+        description = """
+            When httpPath points to a SQL warehouse (`/sql/1.0/warehouses/<id>`) that is stopped, its start is requested through the Warehouses API before anything else, without waiting; the connection then waits for the warehouse to be running.
+            A failure to start it is only logged. Defaults to false.
+            """
+    )
+    @PluginProperty(group = "connection")
+    private Property<Boolean> warmUp;
 
     @Override
     public Output run(RunContext runContext) throws Exception {
-        var url = "jdbc:databricks://" + runContext.render(host).as(String.class).orElseThrow() + ":443;HttpPath=" + runContext.render(httpPath).as(String.class).orElseThrow();
-        if (catalog != null) {
-            url += ";ConnCatalog=" + runContext.render(catalog).as(String.class).orElseThrow();
-        }
-        if (schema != null) {
-            url += ";ConnSchema=" + runContext.render(schema).as(String.class).orElseThrow();
-        }
-        var props = new java.util.Properties();
-        if (accessToken != null) {
-            props.put("PWD", runContext.render(accessToken).as(String.class).orElseThrow());
-        }
-        var propertiesValue = runContext.render(properties).asMap(String.class, String.class);
-        if (!propertiesValue.isEmpty()) {
-            props.putAll(propertiesValue);
-        }
-
-        runContext.logger().debug("Using JDBC URL: {}", url);
-
-        DriverManager.registerDriver(new Driver());
-        try (
-            var connection = DriverManager.getConnection(url, props);
-            var stmt = connection.createStatement()
-        ) {
-            String query = runContext.render(sql).as(String.class).orElseThrow();
-            runContext.logger().debug("Starting query: {}", query);
-
-            if (stmt.execute(query)) {
-                try (ResultSet rs = stmt.getResultSet()) {
-                    File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
-                    BufferedWriter fileWriter = new BufferedWriter(new FileWriter(tempFile));
-                    long size = fetchToFile(stmt, rs, fileWriter, new DatabricksCellConverter(zoneId(runContext)), connection);
-                    fileWriter.flush();
-                    fileWriter.close();
-
-                    runContext.metric(Counter.of("fetch.size", size));
-
-                    return Output.builder()
-                        .uri(runContext.storage().putFile(tempFile))
-                        .size(size)
-                        .build();
+        if (runContext.render(warmUp).as(Boolean.class).orElse(false)) {
+            warmUp(runContext);
+        }
+
+        String query = runContext.render(sql).as(String.class).orElseThrow();
+        FetchType renderedFetchType = runContext.render(fetchType).as(FetchType.class).orElse(FetchType.STORE);
+        Integer renderedMaxRows = runContext.render(maxRows).as(Integer.class).orElse(null);
+        Map<String, Object> renderedParameters = runContext.render(parameters).asMap(String.class, Object.class);
+        OutputFormat renderedOutputFormat = runContext.render(outputFormat).as(OutputFormat.class).orElse(OutputFormat.ION);
+        if (renderedFetchType == FetchType.STORE && renderedOutputFormat == OutputFormat.ARROW && !ArrowRowWriter.isSupported()) {
+            throw new IllegalArgumentException(
+                "The ARROW format needs java.nio to be opened, start the worker JVM with '--add-opens=java.base/java.nio=ALL-UNNAMED'"
+            );
+        }
+        Compression renderedCompression = runContext.render(compression).as(Compression.class).orElse(Compression.NONE);
+
+        StoreSettings store = new StoreSettings(
+            renderedOutputFormat,
+            renderedCompression,
+            rowWriterFactory(runContext, renderedOutputFormat),
+            runContext.render(maxRowsPerFile).as(Long.class).orElse(null),
+            runContext.render(maxBytesPerFile).as(Long.class).orElse(null),
+            runContext.render(streamToStorage).as(Boolean.class).orElse(false)
+        );
+
+        String renderedPartitionColumn = runContext.render(partitionColumn).as(String.class).orElse(null);
+        if (resumableExport != null) {
+            if (renderedPartitionColumn != null) {
+                throw new IllegalArgumentException("resumableExport can't be combined with partitionColumn");
+            }
+            if (cache != null && runContext.render(cache.enabled).as(Boolean.class).orElse(false)) {
+                throw new IllegalArgumentException("resumableExport can't be combined with cache");
+            }
+            return runResumable(runContext, query, renderedParameters, renderedFetchType, renderedMaxRows, store);
+        }
+        if (renderedPartitionColumn != null) {
+            return runPartitioned(runContext, query, renderedParameters, renderedPartitionColumn, renderedFetchType, renderedMaxRows, store);
+        }
+
+        // a cache entry holds a single file
+        boolean cacheEnabled = renderedFetchType == FetchType.STORE && !store.split() && cache != null && runContext.render(cache.enabled).as(Boolean.class).orElse(false);
+        List<String> cacheTables = cacheEnabled ? runContext.render(cache.tables).asList(String.class) : List.of();
+        String cacheKey = null;
+        Optional<QueryCache.Entry> cached = Optional.empty();
+        if (cacheEnabled) {
+            String cachedQuery = renderedParameters.isEmpty() ? query : query + "\n" + new TreeMap<>(renderedParameters);
+            // a result read with other credentials or session settings must not be served
+            String target = poolKey(jdbcUrl(runContext), jdbcProperties(runContext));
+            cacheKey = QueryCache.key(target, cachedQuery, renderedMaxRows, renderedOutputFormat, renderedCompression, zoneId(runContext));
+            cached = QueryCache.get(runContext, cacheKey);
+
+            // without tables to check, a cached entry is valid until its ttl, no connection is needed
+            if (cached.isPresent() && cacheTables.isEmpty()) {
+                return cacheHit(runContext, cached.get(), renderedCompression);
+            }
+        }
+
+        QueryPhases phases = phases(runContext);
+        var cellConverter = new DatabricksCellConverter(zoneId(runContext));
+        String executedSql = renderedParameters.isEmpty() ? query : NamedParameters.parse(query).sql();
+        long startedAtMs = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Output.OutputBuilder<?, ?> output;
+        Map<String, Long> tableVersions = Map.of();
+        String statementId;
+        boolean succeeded = false;
+        try (var lease = connection(runContext)) {
+            try (var stmt = statement(runContext, lease, query, renderedParameters, cellConverter)) {
+                phases.connected(start);
+                Connection connection = lease.getConnection();
+
+                if (!cacheTables.isEmpty()) {
+                    tableVersions = QueryCache.tableVersions(connection, cacheTables);
+                    if (cached.isPresent() && cached.get().tableVersions().equals(tableVersions)) {
+                        succeeded = true;
+                        return cacheHit(runContext, cached.get(), renderedCompression);
+                    }
+                }
+                if (cacheEnabled) {
+                    runContext.metric(Counter.of("cache.miss", 1));
                 }
+
+                prepare(runContext, stmt, renderedMaxRows);
+
+                runContext.logger().debug("Starting query: {}", query);
+
+                phases.executing();
+                boolean isResult = execute(stmt, query);
+                phases.executed();
+                statementId = QueryHistory.statementId(stmt);
+                if (!isResult || renderedFetchType == FetchType.NONE) {
+                    output = Output.builder();
+                } else {
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        output = switch (renderedFetchType) {
+                            case FETCH_ONE -> {
+                                var row = fetchOne(rs, cellConverter, connection, phases);
+                                yield Output.builder()
+                                    .row(row)
+                                    .size(row == null ? 0L : 1L);
+                            }
+                            case FETCH -> {
+                                List<Map<String, Object>> rows = new ArrayList<>();
+                                fetch(stmt, rs, (decoder, current) -> rows.add(decoder.decode(current)), cellConverter, connection, phases);
+                                yield Output.builder()
+                                    .rows(rows)
+                                    .size((long) rows.size());
+                            }
+                            default -> {
+                                var rowWriter = store.writer(runContext);
+                                long size = fetchToFile(stmt, rs, rowWriter, cellConverter, connection, phases);
+                                storeMetrics(runContext, store, rowWriter.getRawBytes(), rowWriter.getCompressedBytes(), rowWriter.getUris().size());
+
+                                yield Output.builder()
+                                    .uri(store.split() ? null : rowWriter.getUris().getFirst())
+                                    .uris(store.split() ? rowWriter.getUris() : null)
+                                    .sizes(store.split() ? rowWriter.getSizes() : null)
+                                    .size(size)
+                                    .compression(renderedCompression);
+                            }
+                        };
+                    }
+                }
+                succeeded = true;
+            } catch (SQLException | InterruptedException e) {
+                // a failed or interrupted statement can leave the session in an unknown state, it is not given back to the pool
+                lease.invalidate();
+                throw e;
             }
+        } finally {
+            phases.record(runContext, succeeded);
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+        // polls for a while, once the connection is released
+        queryHistory(runContext, output, statementId, executedSql, startedAtMs);
+        var result = output.build();
+        if (result.getSize() != null) {
+            runContext.metric(Counter.of("fetch.size", result.getSize()));
         }
-        return null;
+
+        if (cacheEnabled && result.getUri() != null) {
+            var entry = new QueryCache.Entry(result.getUri(), result.getSize(), tableVersions, duration);
+            QueryCache.put(runContext, cacheKey, entry, runContext.render(cache.ttl).as(Duration.class).orElse(null));
+        }
+
+        return result;
     }
 
-    //FIXME duplicated with io.kestra.plugin.jdbc.AbstractJdbcQuery
-    private ZoneId zoneId(RunContext runContext) throws IllegalVariableEvaluationException {
-        if (this.getTimeZoneId() != null) {
-            return ZoneId.of(runContext.render(this.getTimeZoneId()).as(String.class).orElseThrow());
+    private Output runPartitioned(RunContext runContext, String query, Map<String, Object> parameters, String column, FetchType fetchType, Integer maxRows, StoreSettings store) throws Exception {
+        if (fetchType != FetchType.STORE && fetchType != FetchType.FETCH) {
+            throw new IllegalArgumentException("A partitioned query needs fetchType STORE or FETCH, got " + fetchType);
+        }
+
+        long lower = runContext.render(lowerBound).as(Long.class).orElseThrow(() -> new IllegalArgumentException("lowerBound is required with partitionColumn"));
+        long upper = runContext.render(upperBound).as(Long.class).orElseThrow(() -> new IllegalArgumentException("upperBound is required with partitionColumn"));
+        int partitions = runContext.render(numPartitions).as(Integer.class).orElseThrow(() -> new IllegalArgumentException("numPartitions is required with partitionColumn"));
+        List<String> predicates = partitionPredicates(column, lower, upper, partitions);
+
+        String base = query.strip();
+        if (base.endsWith(";")) {
+            base = base.substring(0, base.length() - 1);
+        }
+
+        Connector connector = connector(runContext);
+        ExecutorService executor = Executors.newFixedThreadPool(predicates.size());
+        List<PartitionResult> results = new ArrayList<>(predicates.size());
+        List<QueryPhases> partitionPhases = new ArrayList<>(predicates.size());
+        int failed = -1;
+        try {
+            List<Future<PartitionResult>> futures = new ArrayList<>(predicates.size());
+            for (String predicate : predicates) {
+                String partitionQuery = predicate == null ? base : "SELECT * FROM (" + base + ") AS kestra_partition WHERE " + predicate;
+                QueryPhases phases = phases(runContext);
+                partitionPhases.add(phases);
+                futures.add(executor.submit(() -> fetchPartition(runContext, connector, partitionQuery, parameters, fetchType, maxRows, store, phases)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    failed = i;
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+
+            // only the partitions already awaited are finished, the others may still be running
+            for (int i = 0; i < results.size(); i++) {
+                partitionPhases.get(i).record(runContext, true, "partition", String.valueOf(i));
+            }
+            if (failed >= 0) {
+                partitionPhases.get(failed).record(runContext, false, "partition", String.valueOf(failed));
+            }
         }
 
-        return TimeZone.getDefault().toZoneId();
+        // metrics are recorded from the task thread
+        long size = 0;
+        for (int i = 0; i < results.size(); i++) {
+            PartitionResult result = results.get(i);
+            result.lease().recordMetrics(runContext);
+            runContext.metric(Timer.of("partition.duration", result.duration(), "partition", String.valueOf(i)));
+            runContext.metric(Counter.of("partition.size", result.size(), "partition", String.valueOf(i)));
+            size += result.size();
+        }
+        runContext.metric(Counter.of("fetch.size", size));
+
+        if (fetchType == FetchType.FETCH) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            results.forEach(result -> rows.addAll(result.rows()));
+            return Output.builder()
+                .rows(rows)
+                .size(size)
+                .build();
+        }
+
+        List<URI> uris = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        long rawBytes = 0;
+        long compressedBytes = 0;
+        for (PartitionResult result : results) {
+            if (result.writer() == null) {
+                continue;
+            }
+            uris.addAll(result.writer().getUris());
+            sizes.addAll(result.writer().getSizes());
+            rawBytes += result.writer().getRawBytes();
+            compressedBytes += result.writer().getCompressedBytes();
+        }
+        storeMetrics(runContext, store, rawBytes, compressedBytes, uris.size());
+
+        return Output.builder()
+            .uris(uris)
+            .sizes(sizes)
+            .size(size)
+            .compression(store.compression())
+            .build();
     }
 
-    //FIXME duplicated with io.kestra.plugin.jdbc.AbstractJdbcQuery
-    private long fetchToFile(Statement stmt, ResultSet rs, BufferedWriter writer, AbstractCellConverter cellConverter, Connection connection) throws SQLException, IOException {
-        return fetch(
-            stmt,
-            rs,
-            Rethrow.throwConsumer(map ->
-            {
-                final String s = MAPPER.writeValueAsString(map);
-                writer.write(s);
-                writer.write("\n");
-            }),
-            cellConverter,
-            connection
+    private PartitionResult fetchPartition(RunContext runContext, Connector connector, String query, Map<String, Object> parameters, FetchType fetchType, Integer maxRows, StoreSettings store, QueryPhases phases) throws Exception {
+        var cellConverter = new DatabricksCellConverter(zoneId(runContext));
+        long start = System.nanoTime();
+        try (var lease = connector.open()) {
+            try (var stmt = statement(runContext, lease, query, parameters, cellConverter)) {
+                phases.connected(start);
+                Connection connection = lease.getConnection();
+                prepare(runContext, stmt, maxRows);
+
+                List<Map<String, Object>> rows = new ArrayList<>();
+                RollingRowWriter rowWriter = null;
+                long size = 0;
+                phases.executing();
+                boolean isResult = execute(stmt, query);
+                phases.executed();
+                if (isResult) {
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        if (fetchType == FetchType.STORE) {
+                            rowWriter = store.writer(runContext);
+                            size = fetchToFile(stmt, rs, rowWriter, cellConverter, connection, phases);
+                        } else {
+                            size = fetch(stmt, rs, (decoder, current) -> rows.add(decoder.decode(current)), cellConverter, connection, phases);
+                        }
+                    }
+                }
+
+                return new PartitionResult(lease, size, rows, rowWriter, Duration.ofNanos(System.nanoTime() - start));
+            } catch (SQLException | InterruptedException e) {
+                // also when interrupted by the cancellation of the other partitions
+                lease.invalidate();
+                throw e;
+            }
+        }
+    }
+
+    private Output runResumable(RunContext runContext, String query, Map<String, Object> parameters, FetchType fetchType, Integer maxRows, StoreSettings store) throws Exception {
+        if (fetchType != FetchType.STORE) {
+            throw new IllegalArgumentException("A resumable export needs fetchType STORE, got " + fetchType);
+        }
+        if (maxRows != null) {
+            throw new IllegalArgumentException("maxRows is not supported by a resumable export");
+        }
+
+        String column = runContext.render(resumableExport.keyColumn).as(String.class)
+            .orElseThrow(() -> new IllegalArgumentException("keyColumn is required with resumableExport"));
+        int pageSize = runContext.render(resumableExport.pageSize).as(Integer.class).orElse(DEFAULT_EXPORT_PAGE_SIZE);
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1, got " + pageSize);
+        }
+        Duration ttl = runContext.render(resumableExport.checkpointTtl).as(Duration.class).orElse(DEFAULT_EXPORT_CHECKPOINT_TTL);
+        Optional<String> renderedStateKey = runContext.render(resumableExport.stateKey).as(String.class);
+        String stateKey = renderedStateKey.isPresent() ? renderedStateKey.get() : ExportCheckpoint.key(runContext);
+
+        String base = query.strip();
+        if (base.endsWith(";")) {
+            base = base.substring(0, base.length() - 1);
+        }
+
+        String checkpointedQuery = parameters.isEmpty() ? base : base + "\n" + new TreeMap<>(parameters);
+        String fingerprint = ExportCheckpoint.fingerprint(poolKey(jdbcUrl(runContext), jdbcProperties(runContext)), checkpointedQuery, column, pageSize, store.format(), store.compression());
+        Optional<ExportCheckpoint> found = ExportCheckpoint.get(runContext, stateKey);
+        if (found.isPresent() && !found.get().fingerprint().equals(fingerprint)) {
+            runContext.logger().warn("Ignoring the checkpoint '{}' of another export", stateKey);
+            found = Optional.empty();
+        }
+
+        ExportCheckpoint checkpoint = found.orElseGet(() -> ExportCheckpoint.start(fingerprint));
+        long resumedSize = checkpoint.size();
+        if (checkpoint.resumed()) {
+            runContext.logger().info("Resuming the export after the key {}, {} rows were already stored in {} files", checkpoint.lastKey(), resumedSize, checkpoint.uris().size());
+            runContext.metric(Counter.of("export.resumed.size", resumedSize));
+        }
+
+        var cellConverter = new DatabricksCellConverter(zoneId(runContext));
+        long rawBytes = 0;
+        long compressedBytes = 0;
+        int pages = 0;
+        try (var lease = connection(runContext)) {
+            try {
+                ExportPage page;
+                do {
+                    String pageQuery = keysetPage(base, column, checkpoint.lastKey(), checkpoint.keyType(), pageSize);
+                    try (var stmt = statement(runContext, lease, pageQuery, parameters, cellConverter)) {
+                        prepare(runContext, stmt, null);
+                        runContext.logger().debug("Starting page query: {}", pageQuery);
+                        page = fetchPage(runContext, stmt, pageQuery, store, cellConverter, lease.getConnection());
+                    }
+                    if (page.size() == 0) {
+                        break;
+                    }
+
+                    if (!SqlLiterals.isType(page.keyType())) {
+                        throw new IllegalStateException("Unexpected type '" + page.keyType() + "' of the key column '" + column + "'");
+                    }
+                    checkpoint = checkpoint.next(page.lastKey(), page.keyType(), page.writer().getUris(), page.writer().getSizes());
+                    checkpoint.put(runContext, stateKey, ttl);
+                    rawBytes += page.writer().getRawBytes();
+                    compressedBytes += page.writer().getCompressedBytes();
+                    pages++;
+                    runContext.logger().debug("Stored a page of {} rows up to the key {}", page.size(), page.lastKey());
+                } while (page.size() == pageSize);
+            } catch (SQLException | InterruptedException e) {
+                lease.invalidate();
+                throw e;
+            }
+        }
+
+        // the export is complete, a later restart starts over
+        ExportCheckpoint.delete(runContext, stateKey);
+
+        runContext.metric(Counter.of("export.pages", pages));
+        runContext.metric(Counter.of("fetch.size", checkpoint.size()));
+        storeMetrics(runContext, store, rawBytes, compressedBytes, checkpoint.uris().size());
+
+        return Output.builder()
+            .uris(checkpoint.uris())
+            .sizes(checkpoint.sizes())
+            .size(checkpoint.size())
+            .compression(store.compression())
+            .build();
+    }
+
+    /**
+     * Reads a page into its own files, without the key columns added by {@link #keysetPage}.
+     * The files are only stored when the page has rows.
+     */
+    private ExportPage fetchPage(RunContext runContext, Statement stmt, String query, StoreSettings store, AbstractCellConverter cellConverter, Connection connection) throws SQLException, IOException {
+        if (!execute(stmt, query)) {
+            throw new IllegalArgumentException("A resumable export needs a query returning rows");
+        }
+
+        try (ResultSet rs = stmt.getResultSet()) {
+            RowDecoder decoder = RowDecoder.of(rs, cellConverter, connection);
+            int columns = decoder.getColumnCount() - 2;
+            String[] columnNames = new String[columns];
+            for (int i = 0; i < columns; i++) {
+                columnNames[i] = decoder.getColumnName(i);
+            }
+
+            RollingRowWriter rowWriter = null;
+            long size = 0;
+            Object lastKey = null;
+            Object keyType = null;
+            try {
+                while (rs.next()) {
+                    if (rowWriter == null) {
+                        rowWriter = store.writer(runContext);
+                        rowWriter.start(decoder.getColumns().head(columns));
+                    }
+
+                    Object[] values = new Object[columns];
+                    for (int i = 0; i < columns; i++) {
+                        values[i] = decoder.read(rs, i);
+                    }
+                    rowWriter.write(columnNames, values);
+                    lastKey = decoder.read(rs, columns);
+                    keyType = decoder.read(rs, columns + 1);
+                    size++;
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                // a partial page is never checkpointed, its file is not kept
+                if (rowWriter != null) {
+                    rowWriter.abort();
+                }
+                throw e;
+            }
+
+            if (rowWriter != null) {
+                rowWriter.close();
+            }
+
+            return new ExportPage(rowWriter, size, String.valueOf(lastKey), String.valueOf(keyType));
+        }
+    }
+
+    /**
+     * The query of the page following the row of {@code lastKey}, or of the first page when it is null.
+     * Rows with a NULL key are never read. The key and its type are added as the last two columns to checkpoint the page.
+     */
+    static String keysetPage(String query, String column, String lastKey, String keyType, int pageSize) {
+        String predicate = lastKey == null ? column + " IS NOT NULL" : column + " > " + SqlLiterals.cast(lastKey, keyType);
+
+        return "SELECT kestra_page.*, CAST(" + column + " AS STRING) AS kestra_key, typeof(" + column + ") AS kestra_key_type" +
+            " FROM (" + query + ") AS kestra_page" +
+            " WHERE " + predicate +
+            " ORDER BY " + column +
+            " LIMIT " + pageSize;
+    }
+
+    /**
+     * Range predicates splitting {@code [lower, upper)} into strides, like the Spark JDBC reader:
+     * the first range also reads the values below and NULL, the last one the values above.
+     * A single partition has no predicate.
+     */
+    static List<String> partitionPredicates(String column, long lower, long upper, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("numPartitions must be at least 1, got " + partitions);
+        }
+        if (lower > upper) {
+            throw new IllegalArgumentException("lowerBound must not be greater than upperBound, got " + lower + " and " + upper);
+        }
+
+        long range = Math.subtractExact(upper, lower);
+        int count = (int) Math.min(partitions, Math.max(range, 1));
+        if (count == 1) {
+            return Collections.singletonList(null);
+        }
+
+        long stride = range / count + (range % count == 0 ? 0 : 1);
+        List<String> predicates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long from = lower + i * stride;
+            long to = from + stride;
+            if (i == 0) {
+                predicates.add(column + " < " + to + " OR " + column + " IS NULL");
+            } else if (i == count - 1 || to >= upper) {
+                predicates.add(column + " >= " + from);
+                break;
+            } else {
+                predicates.add(column + " >= " + from + " AND " + column + " < " + to);
+            }
+        }
+
+        return predicates;
+    }
+
+    /**
+     * A plain statement, or a prepared statement with the named parameters bound when there are some.
+     */
+    private Statement statement(RunContext runContext, ConnectionLease lease, String query, Map<String, Object> parameters, AbstractCellConverter cellConverter) throws Exception {
+        if (parameters.isEmpty()) {
+            return lease.getConnection().createStatement();
+        }
+
+        NamedParameters named = NamedParameters.parse(query);
+        List<Object> values = named.values(parameters);
+        PreparedStatement ps = lease.prepareStatement(named.sql());
+        try {
+            bind(ps, parameterType(runContext, ps), values, cellConverter, lease.getConnection());
+        } catch (Exception e) {
+            ps.close();
+            throw e;
+        }
+
+        return ps;
+    }
+
+    private static boolean execute(Statement stmt, String query) throws SQLException {
+        if (stmt instanceof PreparedStatement ps) {
+            return ps.execute();
+        }
+
+        return stmt.execute(query);
+    }
+
+    private void prepare(RunContext runContext, Statement stmt, Integer maxRows) throws Exception {
+        var renderedFetchSize = runContext.render(fetchSize).as(Integer.class);
+        if (renderedFetchSize.isPresent()) {
+            stmt.setFetchSize(renderedFetchSize.get());
+        }
+        // always set, as a cached prepared statement keeps the limit of its previous execution
+        stmt.setMaxRows(maxRows == null ? 0 : maxRows);
+    }
+
+    private static void storeMetrics(RunContext runContext, StoreSettings store, long rawBytes, long compressedBytes, int files) {
+        if (store.compression() != Compression.NONE) {
+            runContext.metric(Counter.of("output.raw.bytes", rawBytes));
+            runContext.metric(Counter.of("output.compressed.bytes", compressedBytes));
+        }
+        if (store.split()) {
+            runContext.metric(Counter.of("output.files", files));
+        }
+    }
+
+    private static Output cacheHit(RunContext runContext, QueryCache.Entry entry, Compression compression) {
+        runContext.logger().info("Reusing the cached result {} of {} rows", entry.uri(), entry.size());
+        runContext.metric(Counter.of("cache.hit", 1));
+        runContext.metric(Timer.of("cache.saved", entry.duration()));
+
+        return Output.builder()
+            .uri(entry.uri())
+            .size(entry.size())
+            .compression(compression)
+            .build();
+    }
+
+    private RollingRowWriter.RowWriterFactory rowWriterFactory(RunContext runContext, OutputFormat format) throws Exception {
+        if (format == OutputFormat.PARQUET && parquet != null) {
+            long rowGroupSize = runContext.render(parquet.rowGroupSize).as(Long.class).orElse(ParquetRowWriter.DEFAULT_ROW_GROUP_SIZE);
+            boolean dictionaryEncoding = runContext.render(parquet.dictionaryEncoding).as(Boolean.class).orElse(true);
+            return outputStream -> new ParquetRowWriter(outputStream, rowGroupSize, dictionaryEncoding);
+        }
+
+        if (pipeline != null && runContext.render(pipeline.enabled).as(Boolean.class).orElse(false)) {
+            if (!format.isConcatenable()) {
+                runContext.logger().warn("The pipelined fetch is ignored for the {} format, which is written by a single thread", format);
+                return outputStream -> format.writer(outputStream, true);
+            }
+
+            int threads = runContext.render(pipeline.threads).as(Integer.class).orElse(DEFAULT_PIPELINE_THREADS);
+            int batchSize = runContext.render(pipeline.batchSize).as(Integer.class).orElse(DEFAULT_PIPELINE_BATCH_SIZE);
+            return outputStream -> new PipelinedRowWriter(format, outputStream, threads, batchSize);
+        }
+
+        return outputStream -> format.writer(outputStream, true);
+    }
+
+    private void warmUp(RunContext runContext) throws Exception {
+        String id = warehouseId(runContext.render(getHttpPath()).as(String.class).orElseThrow());
+        if (id == null) {
+            runContext.logger().warn("warmUp is ignored, the httpPath is not the one of a SQL warehouse");
+            return;
+        }
+
+        try {
+            var warehouses = workspaceClient(runContext).warehouses();
+            State state = warehouses.get(id).getState();
+            boolean start = state == State.STOPPED || state == State.STOPPING;
+            if (start) {
+                runContext.logger().info("Starting warehouse {} in state {}", id, state);
+                warehouses.start(id);
+            }
+            runContext.metric(Counter.of("warehouse.warm.up", start ? 1 : 0, "state", String.valueOf(state)));
+        } catch (RuntimeException e) {
+            runContext.logger().warn("Unable to warm up warehouse {}", id, e);
+        }
+    }
+
+    /**
+     * Adds the metrics of the statement found in the query history to the output, when enabled.
+     */
+    private void queryHistory(RunContext runContext, Output.OutputBuilder<?, ?> output, String statementId, String executedSql, long startedAtMs) throws Exception {
+        if (queryHistory == null || !runContext.render(queryHistory.enabled).as(Boolean.class).orElse(false)) {
+            return;
+        }
+
+        String id = warehouseId(runContext.render(getHttpPath()).as(String.class).orElseThrow());
+        if (id == null) {
+            runContext.logger().warn("queryHistory is ignored, the httpPath is not the one of a SQL warehouse");
+            return;
+        }
+
+        Duration maxWait = runContext.render(queryHistory.maxWait).as(Duration.class).orElse(DEFAULT_HISTORY_MAX_WAIT);
+        try {
+            Optional<QueryInfo> found = QueryHistory.find(workspaceClient(runContext).queryHistory(), id, statementId, executedSql, startedAtMs, maxWait, runContext.logger());
+            if (found.isEmpty()) {
+                runContext.logger().warn("The statement was not found in the query history of warehouse {} after {}", id, maxWait);
+                return;
+            }
+
+            QueryInfo info = found.get();
+            Map<String, Object> metrics = QueryHistory.metrics(info);
+            QueryHistory.record(runContext, metrics);
+            output.queryId(info.getQueryId()).queryMetrics(metrics);
+
+            if (runContext.render(queryHistory.storeProfile).as(Boolean.class).orElse(false)) {
+                output.queryProfile(QueryHistory.store(runContext, info));
+            }
+        } catch (RuntimeException e) {
+            runContext.logger().warn("Unable to read the query history of warehouse {}", id, e);
+        }
+    }
+
+    private QueryPhases phases(RunContext runContext) throws Exception {
+        return new QueryPhases(
+            runContext.render(getHost()).as(String.class).orElse(""),
+            runContext.render(getHttpPath()).as(String.class).orElse("")
         );
     }
 
+    private long fetchToFile(Statement stmt, ResultSet rs, RollingRowWriter rowWriter, AbstractCellConverter cellConverter, Connection connection, QueryPhases phases) throws SQLException, IOException {
+        long size;
+        try {
+            size = fetch(stmt, rs, RowHandler.of(rowWriter), cellConverter, connection, phases);
+        } catch (SQLException | IOException | RuntimeException e) {
+            // a truncated result must not be stored, even when only the read failed
+            try {
+                rowWriter.abort();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        rowWriter.close();
+        phases.uploaded(rowWriter.getRawBytes(), rowWriter.getCompressedBytes());
+
+        return size;
+    }
+
+    private Map<String, Object> fetchOne(ResultSet rs, AbstractCellConverter cellConverter, Connection connection, QueryPhases phases) throws SQLException {
+        RowDecoder decoder = RowDecoder.of(rs, cellConverter, connection);
+        Map<String, Object> row = null;
+        if (rs.next()) {
+            phases.firstRow();
+            row = decoder.decode(rs);
+        }
+        phases.fetched(row == null ? 0 : 1);
+
+        return row;
+    }
+
     //FIXME duplicated with io.kestra.plugin.jdbc.AbstractJdbcQuery
-    private long fetch(Statement stmt, ResultSet rs, Consumer<Map<String, Object>> c, AbstractCellConverter cellConverter, Connection connection) throws SQLException {
+    private long fetch(Statement stmt, ResultSet rs, RowHandler handler, AbstractCellConverter cellConverter, Connection connection, QueryPhases phases) throws SQLException, IOException {
         boolean isResult;
         long count = 0;
 
         do {
+            RowDecoder decoder = RowDecoder.of(rs, cellConverter, connection);
+            handler.columns(decoder.getColumns());
             while (rs.next()) {
-                Map<String, Object> map = mapResultSetToMap(rs, cellConverter, connection);
-                c.accept(map);
+                if (count == 0) {
+                    phases.firstRow();
+                }
+                handler.accept(decoder, rs);
                 count++;
             }
             isResult = stmt.getMoreResults();
+            if (isResult) {
+                rs = stmt.getResultSet();
+            }
         } while (isResult);
+        phases.fetched(count);
 
         return count;
     }
 
-    //FIXME duplicated with io.kestra.plugin.jdbc.AbstractJdbcQuery
-    private Map<String, Object> mapResultSetToMap(ResultSet rs, AbstractCellConverter cellConverter, Connection connection) throws SQLException {
-        int columnsCount = rs.getMetaData().getColumnCount();
-        Map<String, Object> map = new LinkedHashMap<>();
+    private record StoreSettings(
+        OutputFormat format,
+        Compression compression,
+        RollingRowWriter.RowWriterFactory factory,
+        Long maxRowsPerFile,
+        Long maxBytesPerFile,
+        boolean streaming
+    ) {
+        boolean split() {
+            return maxRowsPerFile != null || maxBytesPerFile != null;
+        }
 
-        for (int i = 1; i <= columnsCount; i++) {
-            map.put(rs.getMetaData().getColumnName(i), convertCell(i, rs, cellConverter, connection));
+        RollingRowWriter writer(RunContext runContext) {
+            return new RollingRowWriter(runContext, format.getExtension(), compression, factory, maxRowsPerFile, maxBytesPerFile, streaming);
         }
+    }
 
-        return map;
+    private record ExportPage(RollingRowWriter writer, long size, String lastKey, String keyType) {
     }
 
-    //FIXME duplicated with io.kestra.plugin.jdbc.AbstractJdbcQuery
-    private Object convertCell(int columnIndex, ResultSet rs, AbstractCellConverter cellConverter, Connection connection) throws SQLException {
-        return cellConverter.convertCell(columnIndex, rs, connection);
+    private record PartitionResult(ConnectionLease lease, long size, List<Map<String, Object>> rows, RollingRowWriter writer, Duration duration) {
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(RowDecoder decoder, ResultSet rs) throws SQLException, IOException;
+
+        /**
+         * Called with the columns of each result set, before its rows.
+         */
+        default void columns(ResultColumns columns) throws IOException {
+        }
+
+        static RowHandler of(RowWriter writer) {
+            return new RowHandler() {
+                @Override
+                public void accept(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+                    writer.write(decoder, rs);
+                }
+
+                @Override
+                public void columns(ResultColumns columns) throws IOException {
+                    writer.start(columns);
+                }
+            };
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class CacheConfig {
+        @Schema(title = "Whether results are cached", description = "Defaults to false")
+        private Property<Boolean> enabled;
+
+        @Schema(title = "Time to live of a cached result", description = "Cached results never expire when not set")
+        private Property<Duration> ttl;
+
+        @Schema(
+            title = "Delta tables read by the query",
+            description = "When set, a cached result is only reused while the current version of each table, read from its history, is unchanged"
+        )
+        private Property<List<String>> tables;
+    }
+
+    @Builder
+    @Getter
+    public static class PipelineConfig {
+        @Schema(title = "Whether the fetch is pipelined", description = "Defaults to false")
+        private Property<Boolean> enabled;
+
+        @Schema(title = "Number of serialization threads", description = "Defaults to 2")
+        private Property<Integer> threads;
+
+        @Schema(
+            title = "Number of rows per batch",
+            description = "Rows are handed over between threads by batches, at most twice the number of threads are in memory at once; defaults to 1000"
+        )
+        private Property<Integer> batchSize;
+    }
+
+    @Builder
+    @Getter
+    public static class ParquetConfig {
+        @Schema(
+            title = "Size of a row group in bytes",
+            description = "Rows are buffered in memory up to this size before being written, with maxBytesPerFile a file is only split once a row group is written; defaults to 134217728 (128 MiB)"
+        )
+        private Property<Long> rowGroupSize;
+
+        @Schema(title = "Whether columns are dictionary encoded", description = "Makes the columns with few distinct values smaller; defaults to true")
+        private Property<Boolean> dictionaryEncoding;
+    }
+
+    @Builder
+    @Getter
+    public static class QueryHistoryConfig {
+        @Schema(title = "Whether the statement is looked up in the query history", description = "Defaults to false")
+        private Property<Boolean> enabled;
+
+        @Schema(
+            title = "Whether the whole query history entry is stored",
+            description = "Stores the query history entry of the statement, with all its metrics, as a JSON file of internal storage, see the `queryProfile` output; defaults to false"
+        )
+        private Property<Boolean> storeProfile;
+
+        @Schema(title = "Maximum wait for the statement to appear in the query history", description = "The history is filled a few seconds after a statement ends; defaults to PT1M")
+        private Property<Duration> maxWait;
+    }
+
+    @Builder
+    @Getter
+    public static class ResumableExportConfig {
+        @NotNull
+        @Schema(
+            title = "Column the result is paged on",
+            description = "Must be a column of the query result, unique and not NULL: rows are read in its order and each page starts after the last key of the previous one, rows with a NULL key are not exported"
+        )
+        private Property<String> keyColumn;
+
+        @Schema(title = "Number of rows of each page", description = "Each page is a separate query, stored in its own files; defaults to 1000000")
+        private Property<Integer> pageSize;
+
+        @Schema(
+            title = "Key of the checkpoint in the namespace KV store",
+            description = "Defaults to a key unique to the task run, kept by its retries and the restarts of the execution; set it to resume across executions"
+        )
+        private Property<String> stateKey;
+
+        @Schema(title = "Time to live of the checkpoint", description = "A failed export not retried within it starts over; defaults to P7D")
+        private Property<Duration> checkpointTtl;
     }
 
     @SuperBuilder
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "First fetched row",
+            description = "Only populated when fetchType is FETCH_ONE"
+        )
+        private final Map<String, Object> row;
+
+        @Schema(
+            title = "Fetched rows",
+            description = "Only populated when fetchType is FETCH"
+        )
+        private final List<Map<String, Object>> rows;
+
         @Schema(
             title = "Result file URI",
-            description = "Internal storage URI of the Ion text file containing fetched rows"
+            description = "Internal storage URI of the file containing fetched rows, in the outputFormat; only populated when fetchType is STORE without maxRowsPerFile or maxBytesPerFile"
         )
         private final URI uri;
 
+        @Schema(
+            title = "Result file URIs",
+            description = "Internal storage URIs of the files containing fetched rows, in row order; only populated when maxRowsPerFile, maxBytesPerFile, partitionColumn or resumableExport is set"
+        )
+        private final List<URI> uris;
+
+        @Schema(
+            title = "Number of rows of each result file",
+            description = "In the order of `uris`; only populated when maxRowsPerFile, maxBytesPerFile, partitionColumn or resumableExport is set"
+        )
+        private final List<Long> sizes;
+
         @Schema(
             title = "Number of fetched rows"
         )
         private final Long size;
+
+        @Schema(
+            title = "Compression of the result file",
+            description = "Only populated when fetchType is STORE"
+        )
+        private final Compression compression;
+
+        @Schema(
+            title = "Query history identifier of the statement",
+            description = "Only populated when queryHistory is enabled and the statement was found"
+        )
+        private final String queryId;
+
+        @Schema(
+            title = "Metrics of the statement from the query history",
+            description = "rowsProduced, readBytes, spillToDiskBytes, compilationTimeMs, executionTimeMs, queueTimeMs, totalTimeMs and resultFromCache, when known; only populated when queryHistory is enabled and the statement was found"
+        )
+        private final Map<String, Object> queryMetrics;
+
+        @Schema(
+            title = "Query history entry file URI",
+            description = "Internal storage URI of the JSON query history entry of the statement; only populated when queryHistory.storeProfile is enabled"
+        )
+        private final URI queryProfile;
     }
 }
@@ -0,0 +1,119 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.hash.Hashing;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.plugin.databricks.utils.Compression;
+
+/**
+ * Results of {@link Query} stored in the namespace KV store, keyed by the rendered SQL, the connection target,
+ * the credentials and the settings changing the values read.
+ * <p>
+ * An entry is valid while it has not expired, the result file is still in internal storage
+ * and, when tables are declared, while their current Delta versions are the ones read when the entry was stored.
+ */
+final class QueryCache {
+    private static final String KEY_PREFIX = "databricks_query_cache_";
+
+    private QueryCache() {
+        //utility class pattern
+    }
+
+    record Entry(URI uri, long size, Map<String, Long> tableVersions, Duration duration) {
+    }
+
+    /**
+     * @param target the connection target, with a hash of the credentials and JDBC properties, see {@link AbstractJdbcTask#poolKey}
+     */
+    static String key(String target, String sql, Integer maxRows, OutputFormat format, Compression compression, ZoneId zoneId) {
+        String hash = Hashing.sha256()
+            .hashString(target + "\n" + zoneId + "\n" + maxRows + "\n" + format + "\n" + compression + "\n" + sql, StandardCharsets.UTF_8)
+            .toString();
+
+        return KEY_PREFIX + hash;
+    }
+
+    static Optional<Entry> get(RunContext runContext, String key) throws Exception {
+        Optional<KVValue> value = kvStore(runContext).getValue(key);
+        if (value.isEmpty() || !(value.get().value() instanceof Map<?, ?> map)) {
+            return Optional.empty();
+        }
+
+        Map<String, Long> tableVersions = new LinkedHashMap<>();
+        if (map.get("tableVersions") instanceof Map<?, ?> versions) {
+            versions.forEach((table, version) -> tableVersions.put(table.toString(), ((Number) version).longValue()));
+        }
+
+        Entry entry = new Entry(
+            URI.create(map.get("uri").toString()),
+            ((Number) map.get("size")).longValue(),
+            tableVersions,
+            Duration.ofMillis(((Number) map.get("durationMs")).longValue())
+        );
+
+        return exists(runContext, entry.uri()) ? Optional.of(entry) : Optional.empty();
+    }
+
+    static void put(RunContext runContext, String key, Entry entry, Duration ttl) throws IOException {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("uri", entry.uri().toString());
+        value.put("size", entry.size());
+        value.put("tableVersions", entry.tableVersions());
+        value.put("durationMs", entry.duration().toMillis());
+
+        kvStore(runContext).put(key, new KVValueAndMetadata(new KVMetadata("Databricks query result cache", ttl), value));
+    }
+
+    /**
+     * Reads the current version of each table from its Delta history.
+     */
+    static Map<String, Long> tableVersions(Connection connection, List<String> tables) throws SQLException {
+        Map<String, Long> versions = new LinkedHashMap<>();
+
+        try (Statement stmt = connection.createStatement()) {
+            for (String table : tables) {
+                try (ResultSet rs = stmt.executeQuery("DESCRIBE HISTORY " + table + " LIMIT 1")) {
+                    if (!rs.next()) {
+                        throw new SQLException("No history found for table '" + table + "'");
+                    }
+                    versions.put(table, rs.getLong("version"));
+                }
+            }
+        }
+
+        return versions;
+    }
+
+    private static boolean exists(RunContext runContext, URI uri) throws IOException {
+        // the file may have been purged from internal storage since it was cached
+        try (InputStream ignored = runContext.storage().getFile(uri)) {
+            return true;
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static KVStore kvStore(RunContext runContext) {
+        return runContext.namespaceKv(runContext.flowInfo().namespace());
+    }
+}
@@ -0,0 +1,190 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+
+import com.databricks.jdbc.api.IDatabricksStatement;
+import com.databricks.sdk.service.sql.ListQueryHistoryRequest;
+import com.databricks.sdk.service.sql.QueryFilter;
+import com.databricks.sdk.service.sql.QueryHistoryAPI;
+import com.databricks.sdk.service.sql.QueryInfo;
+import com.databricks.sdk.service.sql.QueryMetrics;
+import com.databricks.sdk.service.sql.QueryStatus;
+import com.databricks.sdk.service.sql.TimeRange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Finds a statement run by a {@link Query} in the query history of its SQL warehouse, and reports its metrics.
+ * <p>
+ * The statement is looked up by the id the JDBC driver gave it. When the driver does not expose it, the statement is matched
+ * by its SQL text among the finished queries of the warehouse started since the execution, and only when a single one matches:
+ * other runs of the same flow may have run the same text at the same time.
+ * The history is filled a few seconds after a query ends, it is polled until the statement appears.
+ */
+final class QueryHistory {
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(2);
+
+    // the warehouse and worker clocks may differ
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private static final long MAX_RESULTS = 100L;
+
+    private QueryHistory() {
+        //utility class pattern
+    }
+
+    /**
+     * The id of the statement in the query history, or null when the driver does not expose it.
+     */
+    static String statementId(Statement stmt) {
+        try {
+            return stmt.unwrap(IDatabricksStatement.class).getStatementId();
+        } catch (SQLException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the statement by its id, or by its text when {@code statementId} is null.
+     */
+    static Optional<QueryInfo> find(QueryHistoryAPI queryHistory, String warehouseId, String statementId, String sql, long startedAtMs, Duration maxWait, Logger logger) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        String text = sql.strip();
+
+        while (true) {
+            QueryFilter filter = new QueryFilter()
+                .setWarehouseIds(List.of(warehouseId))
+                .setStatuses(List.of(QueryStatus.FINISHED))
+                .setQueryStartTimeRange(new TimeRange()
+                    .setStartTimeMs(startedAtMs - CLOCK_SKEW.toMillis())
+                    .setEndTimeMs(System.currentTimeMillis() + CLOCK_SKEW.toMillis())
+                );
+            if (statementId != null) {
+                filter.setStatementIds(List.of(statementId));
+            }
+            var request = new ListQueryHistoryRequest()
+                .setFilterBy(filter)
+                .setIncludeMetrics(true)
+                .setMaxResults(MAX_RESULTS);
+
+            List<QueryInfo> queries = queryHistory.list(request).getRes();
+            List<QueryInfo> candidates = queries == null ? List.of() : queries.stream()
+                .filter(query -> statementId != null
+                    ? statementId.equals(query.getQueryId())
+                    : query.getQueryText() != null && query.getQueryText().strip().equals(text)
+                )
+                .toList();
+
+            if (candidates.size() > 1) {
+                logger.warn(
+                    "{} queries of warehouse {} match the statement text and the driver does not expose the statement id, none is reported",
+                    candidates.size(),
+                    warehouseId
+                );
+                return Optional.empty();
+            }
+            if (!candidates.isEmpty() || System.nanoTime() > deadline) {
+                return candidates.stream().findFirst();
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+    }
+
+    /**
+     * The main metrics of the query, null values are left out.
+     */
+    static Map<String, Object> metrics(QueryInfo query) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        QueryMetrics queryMetrics = query.getMetrics();
+        if (queryMetrics == null) {
+            return metrics;
+        }
+
+        putIfNotNull(metrics, "rowsProduced", queryMetrics.getRowsProducedCount());
+        putIfNotNull(metrics, "readBytes", queryMetrics.getReadBytes());
+        putIfNotNull(metrics, "spillToDiskBytes", queryMetrics.getSpillToDiskBytes());
+        putIfNotNull(metrics, "compilationTimeMs", queryMetrics.getCompilationTimeMs());
+        putIfNotNull(metrics, "executionTimeMs", queryMetrics.getExecutionTimeMs());
+        putIfNotNull(metrics, "queueTimeMs", queueTimeMs(queryMetrics));
+        putIfNotNull(metrics, "totalTimeMs", queryMetrics.getTotalTimeMs());
+        putIfNotNull(metrics, "resultFromCache", queryMetrics.getResultFromCache());
+
+        return metrics;
+    }
+
+    static void record(RunContext runContext, Map<String, Object> metrics) {
+        counter(runContext, "history.rows.produced", metrics.get("rowsProduced"));
+        counter(runContext, "history.read.bytes", metrics.get("readBytes"));
+        counter(runContext, "history.spill.bytes", metrics.get("spillToDiskBytes"));
+        timer(runContext, "history.compilation.time", metrics.get("compilationTimeMs"));
+        timer(runContext, "history.execution.time", metrics.get("executionTimeMs"));
+        timer(runContext, "history.queue.time", metrics.get("queueTimeMs"));
+        timer(runContext, "history.total.time", metrics.get("totalTimeMs"));
+        if (metrics.get("resultFromCache") instanceof Boolean fromCache) {
+            runContext.metric(Counter.of("history.result.from.cache", fromCache ? 1 : 0));
+        }
+    }
+
+    /**
+     * Stores the whole query, with its metrics, as a JSON file of internal storage.
+     */
+    static URI store(RunContext runContext, QueryInfo query) throws Exception {
+        byte[] json = JSON_MAPPER.writeValueAsBytes(query);
+        return runContext.storage().putFile(new ByteArrayInputStream(json), "query_profile_" + query.getQueryId() + ".json");
+    }
+
+    /**
+     * Time spent in the provisioning or overloading queues, from the first queue entry to the start of the compilation.
+     */
+    static Long queueTimeMs(QueryMetrics queryMetrics) {
+        Long compilationStart = queryMetrics.getQueryCompilationStartTimestamp();
+        Long queueStart = min(queryMetrics.getProvisioningQueueStartTimestamp(), queryMetrics.getOverloadingQueueStartTimestamp());
+        if (compilationStart == null || queueStart == null) {
+            return null;
+        }
+
+        return Math.max(0L, compilationStart - queueStart);
+    }
+
+    private static Long min(Long first, Long second) {
+        if (first == null) {
+            return second;
+        }
+
+        return second == null ? first : Math.min(first, second);
+    }
+
+    private static void putIfNotNull(Map<String, Object> metrics, String name, Object value) {
+        if (value != null) {
+            metrics.put(name, value);
+        }
+    }
+
+    private static void counter(RunContext runContext, String name, Object value) {
+        if (value instanceof Number number) {
+            runContext.metric(Counter.of(name, number.doubleValue()));
+        }
+    }
+
+    private static void timer(RunContext runContext, String name, Object value) {
+        if (value instanceof Number number) {
+            runContext.metric(Timer.of(name, Duration.ofMillis(number.longValue())));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Durations of the phases of a {@link Query}: connect, execute, first row, fetch and upload of the stored files.
+ * <p>
+ * The phases are measured on the thread running the statement and recorded by {@link #record(RunContext, boolean, String...)}
+ * from the task thread, as metrics are not thread safe. A phase that did not happen is not recorded, and the phases of a failed
+ * query are recorded too, tagged with the outcome {@code failure}, so that a slow phase is not hidden by the failures it causes.
+ */
+final class QueryPhases {
+    private final String[] tags;
+
+    private Duration connect;
+    private Duration execute;
+    private Duration firstRow;
+    private Duration fetch;
+    private Duration upload;
+    private long executeStart;
+    private long executeEnd;
+    private long fetchEnd;
+    private long rows;
+    private long bytesWritten = -1;
+    private long bytesUploaded = -1;
+
+    QueryPhases(String host, String httpPath) {
+        this.tags = new String[]{"host", host, "httpPath", httpPath};
+    }
+
+    /**
+     * The connection started at {@code start}, from {@link System#nanoTime()}, is open.
+     */
+    void connected(long start) {
+        connect = Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    void executing() {
+        executeStart = System.nanoTime();
+    }
+
+    /**
+     * The statement returned, this includes the time the statement waited for the warehouse.
+     */
+    void executed() {
+        executeEnd = System.nanoTime();
+        execute = Duration.ofNanos(executeEnd - executeStart);
+    }
+
+    void firstRow() {
+        if (firstRow == null) {
+            firstRow = Duration.ofNanos(System.nanoTime() - executeEnd);
+        }
+    }
+
+    /**
+     * All the rows are read, the fetch phase includes the first row latency.
+     */
+    void fetched(long rows) {
+        fetchEnd = System.nanoTime();
+        fetch = Duration.ofNanos(fetchEnd - executeEnd);
+        this.rows = rows;
+    }
+
+    /**
+     * The stored files are complete, the upload phase is the time spent after the last row finishing and uploading them.
+     */
+    void uploaded(long bytesWritten, long bytesUploaded) {
+        upload = Duration.ofNanos(System.nanoTime() - fetchEnd);
+        this.bytesWritten = bytesWritten;
+        this.bytesUploaded = bytesUploaded;
+    }
+
+    void record(RunContext runContext, boolean succeeded, String... extraTags) {
+        String[] metricTags = Arrays.copyOf(tags, tags.length + extraTags.length + 2);
+        System.arraycopy(extraTags, 0, metricTags, tags.length, extraTags.length);
+        metricTags[metricTags.length - 2] = "outcome";
+        metricTags[metricTags.length - 1] = succeeded ? "success" : "failure";
+
+        timer(runContext, "phase.connect", connect, metricTags);
+        timer(runContext, "phase.execute", execute, metricTags);
+        timer(runContext, "phase.first.row", firstRow, metricTags);
+        timer(runContext, "phase.fetch", fetch, metricTags);
+        timer(runContext, "phase.upload", upload, metricTags);
+
+        if (fetch != null && !fetch.isZero()) {
+            runContext.metric(Counter.of("fetch.rows.per.second", rows * 1_000_000_000D / fetch.toNanos(), metricTags));
+        }
+        if (bytesWritten >= 0) {
+            runContext.metric(Counter.of("output.bytes.written", bytesWritten, metricTags));
+            runContext.metric(Counter.of("output.bytes.uploaded", bytesUploaded, metricTags));
+        }
+    }
+
+    private static void timer(RunContext runContext, String name, Duration duration, String[] tags) {
+        if (duration != null) {
+            runContext.metric(Timer.of(name, duration, tags));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Metric;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.plugin.databricks.utils.Compression;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Store the changes of a Delta table since the previous execution.",
+            full = true,
+            code = """
+                id: databricks_read_changes
+                namespace: company.team
+
+                tasks:
+                  - id: changes
+                    type: io.kestra.plugin.databricks.sql.ReadChanges
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    table: my_catalog.my_schema.orders
+
+                triggers:
+                  - id: hourly
+                    type: io.kestra.plugin.core.trigger.Schedule
+                    cron: "@hourly"
+                """
+        )
+    },
+    metrics = {
+        @Metric(name = "fetch.size", type = "counter", description = "Number of change rows"),
+        @Metric(name = "versions", type = "counter", description = "Number of table versions read")
+    }
+)
+@Schema(
+    title = "Read the change data feed of a Delta table",
+    description = """
+        Reads the rows changed since the last execution with `table_changes`, including the `_change_type`, `_commit_version` and `_commit_timestamp` columns, and stores them like sql.Query.
+        The last version read is kept in the namespace KV store, so each execution only reads the versions committed since the previous one.
+        The change data feed must be enabled on the table (`delta.enableChangeDataFeed`).
+        """
+)
+public class ReadChanges extends AbstractJdbcTask implements RunnableTask<ReadChanges.Output> {
+    private static final String KEY_PREFIX = "databricks_changes_";
+
+    @NotNull
+    @Schema(title = "Delta table", description = "Table name, qualified with its catalog and schema when needed")
+    @PluginProperty(group = "main")
+    private Property<String> table;
+
+    @Schema(
+        title = "Version to start from",
+        description = "Only used when no version was read yet for the state key; defaults to 0, the table must have had its change data feed enabled since this version"
+    )
+    @PluginProperty(group = "execution")
+    private Property<Long> startVersion;
+
+    @Schema(
+        title = "Key of the last version read in the namespace KV store",
+        description = "Defaults to a key derived from the flow id and the table, so that several flows reading the same table keep their own progress"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> stateKey;
+
+    @Schema(title = "Format of the stored change file", description = "See the outputFormat of sql.Query")
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<OutputFormat> outputFormat = Property.ofValue(OutputFormat.ION);
+
+    @Schema(title = "Compression of the stored change file", description = "See the compression of sql.Query")
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    private Property<Compression> compression = Property.ofValue(Compression.NONE);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        String renderedTable = runContext.render(table).as(String.class).orElseThrow();
+        String key = runContext.render(stateKey).as(String.class)
+            .orElseGet(() -> KEY_PREFIX + runContext.flowInfo().id() + "_" + renderedTable.replaceAll("[^a-zA-Z0-9._-]", "_"));
+
+        KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+        Optional<KVValue> previous = kvStore.getValue(key);
+        long start = previous.isPresent() && previous.get().value() instanceof Number last ?
+            last.longValue() + 1 :
+            runContext.render(startVersion).as(Long.class).orElse(0L);
+
+        long end;
+        try (var lease = connection(runContext)) {
+            end = QueryCache.tableVersions(lease.getConnection(), List.of(renderedTable)).get(renderedTable);
+        }
+
+        if (start > end) {
+            runContext.logger().info("No new version of {} since version {}", renderedTable, start - 1);
+            runContext.metric(Counter.of("fetch.size", 0));
+            return Output.builder()
+                .size(0L)
+                .startVersion(start)
+                .endVersion(end)
+                .build();
+        }
+
+        var query = Query.builder()
+            .id(getId())
+            .type(Query.class.getName())
+            .host(getHost())
+            .httpPath(getHttpPath())
+            .catalog(getCatalog())
+            .schema(getSchema())
+            .accessToken(getAccessToken())
+            .properties(getProperties())
+            .timeZoneId(getTimeZoneId())
+            .enableArrow(getEnableArrow())
+            .connectionPool(getConnectionPool())
+            .sql(Property.ofValue("SELECT * FROM table_changes(" + SqlLiterals.literal(renderedTable) + ", " + start + ", " + end + ")"))
+            .outputFormat(outputFormat)
+            .compression(compression)
+            .build();
+        var result = query.run(runContext);
+
+        // the changes are stored, the next execution starts after them
+        kvStore.put(key, new KVValueAndMetadata(new KVMetadata("Last version read of " + renderedTable, (Duration) null), end));
+        runContext.metric(Counter.of("versions", end - start + 1));
+        runContext.logger().info("Read {} changes of {} from version {} to {}", result.getSize(), renderedTable, start, end);
+
+        return Output.builder()
+            .uri(result.getUri())
+            .size(result.getSize())
+            .compression(result.getCompression())
+            .startVersion(start)
+            .endVersion(end)
+            .build();
+    }
+
+    @SuperBuilder
+    @Getter
+    public static class Output extends Query.Output {
+        @Schema(title = "First table version read")
+        private final Long startVersion;
+
+        @Schema(title = "Last table version read", description = "The next execution starts after it")
+        private final Long endVersion;
+    }
+}
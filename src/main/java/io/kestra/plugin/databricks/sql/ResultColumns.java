@@ -0,0 +1,91 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * The columns of a result set as described by its {@link ResultSetMetaData}, for the formats whose schema is written before the rows.
+ * <p>
+ * The precision and scale are only read for decimal columns, the only ones whose type needs them.
+ */
+final class ResultColumns {
+    private final String[] names;
+    private final int[] sqlTypes;
+    private final String[] typeNames;
+    private final int[] precisions;
+    private final int[] scales;
+
+    ResultColumns(String[] names, int[] sqlTypes, String[] typeNames, int[] precisions, int[] scales) {
+        this.names = names;
+        this.sqlTypes = sqlTypes;
+        this.typeNames = typeNames;
+        this.precisions = precisions;
+        this.scales = scales;
+    }
+
+    static ResultColumns of(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        String[] names = new String[count];
+        int[] sqlTypes = new int[count];
+        String[] typeNames = new String[count];
+        int[] precisions = new int[count];
+        int[] scales = new int[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = metaData.getColumnName(i + 1);
+            sqlTypes[i] = metaData.getColumnType(i + 1);
+            typeNames[i] = metaData.getColumnTypeName(i + 1);
+            if (sqlTypes[i] == Types.DECIMAL || sqlTypes[i] == Types.NUMERIC) {
+                precisions[i] = metaData.getPrecision(i + 1);
+                scales[i] = metaData.getScale(i + 1);
+            }
+        }
+
+        return new ResultColumns(names, sqlTypes, typeNames, precisions, scales);
+    }
+
+    /**
+     * The first {@code count} columns.
+     */
+    ResultColumns head(int count) {
+        return new ResultColumns(
+            Arrays.copyOf(names, count),
+            Arrays.copyOf(sqlTypes, count),
+            Arrays.copyOf(typeNames, count),
+            Arrays.copyOf(precisions, count),
+            Arrays.copyOf(scales, count)
+        );
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String[] names() {
+        return names;
+    }
+
+    String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * The {@link Types JDBC type} of the 0-based {@code index}.
+     */
+    int sqlType(int index) {
+        return sqlTypes[index];
+    }
+
+    String typeName(int index) {
+        return typeNames[index];
+    }
+
+    int precision(int index) {
+        return precisions[index];
+    }
+
+    int scale(int index) {
+        return scales[index];
+    }
+}
@@ -0,0 +1,248 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.io.output.CountingOutputStream;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.databricks.utils.Compression;
+import io.kestra.plugin.databricks.utils.StorageOutputStream;
+
+/**
+ * Writes rows to one or more files of internal storage, starting a new file on a row boundary
+ * once the current one reaches a number of rows or of uncompressed bytes.
+ * <p>
+ * A finished file is uploaded on a background thread while the next one is written, and deleted locally once uploaded.
+ * When streaming, each file is instead uploaded while it is written, through a {@link StorageOutputStream}, and never touches the local disk.
+ * The byte limit is checked against the bytes already flushed by the row writer, so a file can exceed it by the size of its buffer.
+ */
+final class RollingRowWriter implements RowWriter {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final RunContext runContext;
+    private final String extension;
+    private final Compression compression;
+    private final RowWriterFactory factory;
+    private final Long maxRows;
+    private final Long maxBytes;
+    private final boolean streaming;
+    private final ExecutorService uploader = Executors.newSingleThreadExecutor();
+    private final List<CompletableFuture<URI>> uploads = new ArrayList<>();
+    private final List<Long> sizes = new ArrayList<>();
+
+    private File file;
+    private StorageOutputStream storageOutputStream;
+    private CountingOutputStream rawBytes;
+    private CountingOutputStream compressedBytes;
+    private OutputStream outputStream;
+    private RowWriter writer;
+    private ResultColumns columns;
+    private boolean failed = false;
+    private long count = 0;
+    private long totalRawBytes = 0;
+    private long totalCompressedBytes = 0;
+    private List<URI> uris;
+
+    RollingRowWriter(RunContext runContext, String extension, Compression compression, RowWriterFactory factory, Long maxRows, Long maxBytes, boolean streaming) {
+        this.runContext = runContext;
+        this.extension = extension;
+        this.compression = compression;
+        this.factory = factory;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.streaming = streaming;
+    }
+
+    @Override
+    public void start(ResultColumns columns) throws IOException {
+        this.columns = columns;
+        try {
+            if (writer != null) {
+                writer.start(columns);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException {
+        try {
+            current().write(decoder, rs);
+            written();
+        } catch (SQLException | IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(String[] columnNames, Object[] values) throws IOException {
+        try {
+            current().write(columnNames, values);
+            written();
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The URIs of the files in row order, available once closed.
+     */
+    List<URI> getUris() {
+        return uris;
+    }
+
+    /**
+     * The number of rows of each file, in the order of {@link #getUris()}.
+     */
+    List<Long> getSizes() {
+        return sizes;
+    }
+
+    long getRawBytes() {
+        return totalRawBytes;
+    }
+
+    long getCompressedBytes() {
+        return totalCompressedBytes;
+    }
+
+    private RowWriter current() throws IOException {
+        if (writer == null) {
+            String fileExtension = extension + compression.getExtension();
+            OutputStream sink;
+            if (streaming) {
+                storageOutputStream = new StorageOutputStream(runContext, IdUtils.create() + fileExtension, uploader);
+                sink = storageOutputStream;
+            } else {
+                file = runContext.workingDir().createTempFile(fileExtension).toFile();
+                sink = new FileOutputStream(file);
+            }
+            compressedBytes = new CountingOutputStream(sink);
+            outputStream = new BufferedOutputStream(compression.compress(compressedBytes), BUFFER_SIZE);
+            // counted above the buffer to follow the rows closely
+            rawBytes = new CountingOutputStream(outputStream);
+            writer = factory.create(rawBytes);
+            // each file has the schema of the columns
+            if (columns != null) {
+                writer.start(columns);
+            }
+        }
+
+        return writer;
+    }
+
+    private void written() throws IOException {
+        count++;
+
+        long rows = writer.getCount();
+        if ((maxRows != null && rows >= maxRows) || (maxBytes != null && rawBytes.getByteCount() >= maxBytes)) {
+            finish();
+        }
+    }
+
+    private void finish() throws IOException {
+        sizes.add(writer.getCount());
+        try {
+            writer.close();
+        } finally {
+            outputStream.close();
+            writer = null;
+        }
+
+        totalRawBytes += rawBytes.getByteCount();
+        totalCompressedBytes += compressedBytes.getByteCount();
+
+        if (streaming) {
+            // already uploading, closing the stream ended it
+            uploads.add(storageOutputStream.getUpload());
+            return;
+        }
+
+        File finished = file;
+        uploads.add(CompletableFuture.supplyAsync(
+            () -> {
+                try {
+                    URI uri = runContext.storage().putFile(finished);
+                    Files.deleteIfExists(finished.toPath());
+                    return uri;
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            },
+            uploader
+        ));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (failed) {
+                if (writer != null) {
+                    // the row writer may hold threads that would otherwise wait forever for the next rows
+                    writer.abort();
+                    writer = null;
+                    if (streaming) {
+                        storageOutputStream.abort();
+                    } else {
+                        outputStream.close();
+                    }
+                }
+                return;
+            }
+
+            // an empty result is still stored as an empty file
+            if (writer != null || uploads.isEmpty()) {
+                current();
+                finish();
+            }
+
+            List<URI> result = new ArrayList<>(uploads.size());
+            for (CompletableFuture<URI> upload : uploads) {
+                result.add(upload.join());
+            }
+            uris = result;
+        } catch (CompletionException e) {
+            throw new IOException("Unable to upload the result file", e.getCause());
+        } finally {
+            uploader.shutdownNow();
+        }
+    }
+
+    /**
+     * Closes the writer without storing the file being written, when the rows could not all be read.
+     */
+    @Override
+    public void abort() throws IOException {
+        failed = true;
+        close();
+    }
+
+    @FunctionalInterface
+    interface RowWriterFactory {
+        RowWriter create(OutputStream outputStream) throws IOException;
+    }
+}
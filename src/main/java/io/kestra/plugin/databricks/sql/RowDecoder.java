@@ -0,0 +1,66 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decodes the rows of a {@link ResultSet}.
+ * <p>
+ * The {@link ResultSetMetaData} is read once to resolve the column names and a {@link ColumnReader} per column,
+ * so decoding a row does no metadata lookup and no type dispatch on the cell value.
+ */
+final class RowDecoder {
+    private final ResultColumns columns;
+    private final String[] columnNames;
+    private final ColumnReader[] readers;
+
+    private RowDecoder(ResultColumns columns, ColumnReader[] readers) {
+        this.columns = columns;
+        this.columnNames = columns.names();
+        this.readers = readers;
+    }
+
+    public static RowDecoder of(ResultSet rs, AbstractCellConverter cellConverter, Connection connection) throws SQLException {
+        ResultColumns columns = ResultColumns.of(rs.getMetaData());
+
+        ColumnReader[] readers = new ColumnReader[columns.size()];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = cellConverter.columnReader(columns.sqlType(i), columns.typeName(i), connection);
+        }
+
+        return new RowDecoder(columns, readers);
+    }
+
+    public ResultColumns getColumns() {
+        return this.columns;
+    }
+
+    public int getColumnCount() {
+        return this.readers.length;
+    }
+
+    public String getColumnName(int index) {
+        return this.columnNames[index];
+    }
+
+    /**
+     * Reads the cell at the 0-based {@code index} of the current row.
+     */
+    public Object read(ResultSet rs, int index) throws SQLException {
+        return this.readers[index].read(rs, index + 1);
+    }
+
+    public Map<String, Object> decode(ResultSet rs) throws SQLException {
+        Map<String, Object> map = LinkedHashMap.newLinkedHashMap(this.readers.length);
+
+        for (int i = 0; i < this.readers.length; i++) {
+            map.put(this.columnNames[i], this.readers[i].read(rs, i + 1));
+        }
+
+        return map;
+    }
+}
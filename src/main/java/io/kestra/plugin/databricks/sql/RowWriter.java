@@ -0,0 +1,35 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes the rows of a result to an output, closing it flushes the rows not written yet.
+ */
+interface RowWriter extends Closeable {
+    /**
+     * Describes the columns of the rows that follow, before the first one, so that an empty result still has the schema of its format.
+     */
+    default void start(ResultColumns columns) throws IOException {
+    }
+
+    /**
+     * Writes the current row of the {@link ResultSet}.
+     */
+    void write(RowDecoder decoder, ResultSet rs) throws SQLException, IOException;
+
+    /**
+     * Writes a row already read, {@code columnNames} is the same array for all the rows of a result set.
+     */
+    void write(String[] columnNames, Object[] values) throws IOException;
+
+    long getCount();
+
+    /**
+     * Releases the writer after a failure without flushing the rows not written yet, the output is left to the caller.
+     */
+    default void abort() throws IOException {
+    }
+}
@@ -0,0 +1,36 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * Values written into generated Databricks SQL, for the statements where they can't be bound as parameters.
+ */
+final class SqlLiterals {
+    // types returned by typeof(), e.g. timestamp or decimal(10,2)
+    private static final Pattern SQL_TYPE = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_ ,()]*");
+
+    private SqlLiterals() {
+        //utility class pattern
+    }
+
+    /**
+     * A string literal, with backslashes and quotes escaped.
+     */
+    static String literal(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    /**
+     * Whether a type name read from the warehouse, e.g. with {@code typeof()}, can be written into a cast.
+     */
+    static boolean isType(String type) {
+        return SQL_TYPE.matcher(type).matches();
+    }
+
+    /**
+     * The value read as text, e.g. with {@code CAST(x AS STRING)}, cast back to its type.
+     */
+    static String cast(String value, String type) {
+        return "CAST(" + literal(value) + " AS " + type + ")";
+    }
+}
@@ -0,0 +1,85 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+
+import com.databricks.sdk.service.sql.State;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Metric;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Start a SQL warehouse without waiting, so that it warms up while the upstream tasks run.",
+            full = true,
+            code = """
+                id: databricks_start_warehouse
+                namespace: company.team
+
+                tasks:
+                  - id: warm_up
+                    type: io.kestra.plugin.databricks.sql.StartWarehouse
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    warehouseId: <your-warehouse>
+                    waitForCompletion: false
+                """
+        )
+    },
+    metrics = {
+        @Metric(name = "warehouse.started", type = "counter", description = "1 when a start was requested, 0 when the warehouse was already running or starting"),
+        @Metric(name = "warehouse.start.duration", type = "timer", description = "Time for the warehouse to be running, only when a start was requested and waited for")
+    }
+)
+@Schema(
+    title = "Start a SQL warehouse",
+    description = """
+        Starts a stopped SQL warehouse through the Warehouses API, and by default waits for it to be running.
+        A warehouse that is already running or starting is left as is.
+        """
+)
+public class StartWarehouse extends AbstractWarehouseTask implements RunnableTask<AbstractWarehouseTask.Output> {
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        String id = renderWarehouseId(runContext);
+        var warehouses = workspaceClient(runContext).warehouses();
+
+        State state = warehouses.get(id).getState();
+        if (state == State.RUNNING || state == State.STARTING) {
+            runContext.logger().info("Warehouse {} is already {}", id, state);
+            runContext.metric(Counter.of("warehouse.started", 0));
+            return Output.builder().warehouseId(id).state(state).duration(Duration.ZERO).build();
+        }
+
+        runContext.logger().info("Starting warehouse {} in state {}", id, state);
+        long start = System.nanoTime();
+        state = await(runContext, id, warehouses.start(id));
+        Duration duration = state == State.RUNNING ? Duration.ofNanos(System.nanoTime() - start) : Duration.ZERO;
+
+        runContext.metric(Counter.of("warehouse.started", 1));
+        if (state == State.RUNNING) {
+            runContext.metric(Timer.of("warehouse.start.duration", duration));
+        }
+        runContext.logger().info("Warehouse {} is {}", id, state);
+
+        return Output.builder().warehouseId(id).state(state).duration(duration).build();
+    }
+}
@@ -0,0 +1,117 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+import com.databricks.sdk.service.sql.ColumnInfo;
+import com.databricks.sdk.service.sql.ExternalLink;
+import com.databricks.sdk.service.sql.StatementExecutionAPI;
+import com.databricks.sdk.service.sql.StatementResponse;
+import com.databricks.sdk.service.sql.StatementState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Waits for a statement of the Statement Execution API and stores its result, shared by {@link ExecuteStatement} and {@link FetchResult}.
+ */
+final class StatementResults {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofIon();
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private StatementResults() {
+        //utility class pattern
+    }
+
+    /**
+     * Polls the statement until it is no longer pending or running, failing unless it succeeded.
+     * The statement is cancelled when the wait is interrupted, e.g. when the execution is killed.
+     */
+    static StatementResponse waitForCompletion(StatementExecutionAPI statementExecution, StatementResponse response, Duration pollInterval) throws InterruptedException {
+        while (isRunning(response)) {
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                try {
+                    statementExecution.cancelExecution(response.getStatementId());
+                } catch (RuntimeException cancelFailure) {
+                    e.addSuppressed(cancelFailure);
+                }
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+            response = statementExecution.getStatement(response.getStatementId());
+        }
+
+        if (response.getStatus().getState() != StatementState.SUCCEEDED) {
+            String message = response.getStatus().getError() != null ? response.getStatus().getError().getMessage() : null;
+            throw new IllegalStateException("Statement " + response.getStatementId() + " ended with state " + response.getStatus().getState() + (message != null ? ": " + message : ""));
+        }
+
+        return response;
+    }
+
+    static boolean isRunning(StatementResponse response) {
+        return response.getStatus().getState() == StatementState.PENDING || response.getStatus().getState() == StatementState.RUNNING;
+    }
+
+    /**
+     * Downloads the external link chunks of a succeeded statement to an Ion file of internal storage.
+     */
+    static ExecuteStatement.Output store(RunContext runContext, StatementExecutionAPI statementExecution, StatementResponse response, int maxConcurrentDownloads) throws Exception {
+        String statementId = response.getStatementId();
+        if (response.getManifest() == null || response.getManifest().getSchema() == null) {
+            return ExecuteStatement.Output.builder().statementId(statementId).size(0L).build();
+        }
+
+        List<ColumnInfo> columns = response.getManifest().getSchema().getColumns();
+        long chunkCount = response.getManifest().getTotalChunkCount() == null ? 0 : response.getManifest().getTotalChunkCount();
+
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        long size;
+        try (
+            HttpClient httpClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE);
+            JacksonRowWriter writer = new JacksonRowWriter(MAPPER, output)
+        ) {
+            var downloader = new ExternalLinkDownloader(httpClient, maxConcurrentDownloads, runContext.workingDir().path());
+            var chunkReader = new ExecuteStatement.ChunkReader(columns);
+
+            downloader.download(
+                chunkCount,
+                chunkIndex -> link(statementExecution, statementId, chunkIndex),
+                (chunkIndex, inputStream) -> chunkReader.read(inputStream, writer)
+            );
+            size = writer.getCount();
+        }
+
+        runContext.metric(Counter.of("fetch.size", size));
+        runContext.metric(Counter.of("chunk.count", chunkCount));
+
+        return ExecuteStatement.Output.builder()
+            .statementId(statementId)
+            .uri(runContext.storage().putFile(tempFile))
+            .size(size)
+            .build();
+    }
+
+    private static ExternalLinkDownloader.Link link(StatementExecutionAPI statementExecution, String statementId, long chunkIndex) {
+        List<ExternalLink> links = statementExecution.getStatementResultChunkN(statementId, chunkIndex).getExternalLinks();
+        if (links == null || links.isEmpty()) {
+            throw new IllegalStateException("No external link returned for chunk " + chunkIndex + " of statement " + statementId);
+        }
+
+        // presigned URLs, Databricks credentials must not be sent along
+        ExternalLink link = links.getFirst();
+        return new ExternalLinkDownloader.Link(URI.create(link.getExternalLink()), link.getHttpHeaders());
+    }
+}
@@ -0,0 +1,71 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+
+import com.databricks.sdk.service.sql.State;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Stop a SQL warehouse once the queries of the flow are done.",
+            full = true,
+            code = """
+                id: databricks_stop_warehouse
+                namespace: company.team
+
+                tasks:
+                  - id: stop
+                    type: io.kestra.plugin.databricks.sql.StopWarehouse
+                    host: "{{ secret('DATABRICKS_HOST') }}"
+                    authentication:
+                      token: "{{ secret('DATABRICKS_TOKEN') }}"
+                    warehouseId: <your-warehouse>
+                """
+        )
+    }
+)
+@Schema(
+    title = "Stop a SQL warehouse",
+    description = """
+        Stops a SQL warehouse through the Warehouses API, and by default waits for it to be stopped.
+        A warehouse that is already stopped or stopping is left as is.
+        """
+)
+public class StopWarehouse extends AbstractWarehouseTask implements RunnableTask<AbstractWarehouseTask.Output> {
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        String id = renderWarehouseId(runContext);
+        var warehouses = workspaceClient(runContext).warehouses();
+
+        State state = warehouses.get(id).getState();
+        if (state == State.STOPPED || state == State.STOPPING) {
+            runContext.logger().info("Warehouse {} is already {}", id, state);
+            return Output.builder().warehouseId(id).state(state).duration(Duration.ZERO).build();
+        }
+
+        runContext.logger().info("Stopping warehouse {} in state {}", id, state);
+        long start = System.nanoTime();
+        state = await(runContext, id, warehouses.stop(id));
+        Duration duration = state == State.STOPPED ? Duration.ofNanos(System.nanoTime() - start) : Duration.ZERO;
+        runContext.logger().info("Warehouse {} is {}", id, state);
+
+        return Output.builder().warehouseId(id).state(state).duration(duration).build();
+    }
+}
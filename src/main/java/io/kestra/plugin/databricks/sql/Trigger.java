@@ -0,0 +1,240 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.common.FetchType;
+import io.kestra.core.models.triggers.AbstractTrigger;
+import io.kestra.core.models.triggers.PollingTriggerInterface;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.core.models.triggers.TriggerService;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Start an execution with the new orders every five minutes.",
+            full = true,
+            code = """
+                id: databricks_new_orders
+                namespace: company.team
+
+                tasks:
+                  - id: log
+                    type: io.kestra.plugin.core.log.Log
+                    message: "{{ trigger.size }} new orders in {{ trigger.uri }}"
+
+                triggers:
+                  - id: watch
+                    type: io.kestra.plugin.databricks.sql.Trigger
+                    interval: PT5M
+                    accessToken: "{{ secret('DATABRICKS_TOKEN') }}"
+                    host: <your-host>
+                    httpPath: <your-httpPath>
+                    sql: SELECT * FROM my_catalog.my_schema.orders
+                    watermarkColumn: updated_at
+                """
+        )
+    }
+)
+@Schema(
+    title = "Trigger a flow on new rows of a Databricks SQL query",
+    description = """
+        Polls a SQL query at a fixed interval and starts an execution with the rows whose watermarkColumn is greater than at the previous poll.
+        Each poll first reads the maximum of the column over the new rows, then fetches only the rows up to it, so that rows arriving during the poll are left for the next one.
+        The maximum is kept in the namespace KV store, with its SQL type, between polls. When there are no new rows, no execution is started.
+        """
+)
+public class Trigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<Query.Output> {
+    private static final String KEY_PREFIX = "databricks_trigger_";
+
+    @Builder.Default
+    private final Duration interval = Duration.ofSeconds(60);
+
+    @NotNull
+    @Schema(title = "Databricks host", description = "Server hostname without protocol, e.g. adb-12345.7.azuredatabricks.net")
+    @PluginProperty(group = "main")
+    private Property<String> host;
+
+    @NotNull
+    @Schema(
+        title = "Databricks cluster HTTP Path",
+        description = "HTTP Path from the cluster connection details (Advanced options → JDBC/ODBC)."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> httpPath;
+
+    @Schema(title = "Catalog used for the connection", description = "Sets ConnCatalog on the JDBC URL when provided")
+    @PluginProperty(group = "advanced")
+    private Property<String> catalog;
+
+    @Schema(title = "Schema used for the connection", description = "Sets ConnSchema on the JDBC URL when provided")
+    @PluginProperty(group = "connection")
+    private Property<String> schema;
+
+    @Schema(title = "Databricks access token", description = "Personal Access Token passed as the JDBC password; render from secrets")
+    @PluginProperty(secret = true, group = "connection")
+    private Property<String> accessToken;
+
+    @Schema(title = "Additional JDBC properties", description = "Optional map merged into the Databricks driver properties after authentication")
+    @PluginProperty(group = "advanced")
+    private Property<Map<String, String>> properties;
+
+    @Schema(
+        title = "Time zone for temporal values",
+        description = "Timezone used when converting date/time columns; defaults to the worker JVM time zone"
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> timeZoneId;
+
+    @Schema(
+        title = "Use the Arrow result format of the JDBC driver",
+        description = "See enableArrow of the Query task; when not set, the driver default is used"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> enableArrow;
+
+    @Schema(
+        title = "Connection pool configuration",
+        description = "When enabled, the connection is kept open between polls of the same worker"
+    )
+    @PluginProperty(group = "advanced")
+    private AbstractJdbcTask.ConnectionPoolConfig connectionPool;
+
+    @NotNull
+    @Schema(
+        title = "SQL query to poll",
+        description = "A single SELECT returning the watermarkColumn, it is wrapped with the range predicate of each poll"
+    )
+    @PluginProperty(group = "main")
+    private Property<String> sql;
+
+    @NotNull
+    @Schema(
+        title = "Column tracking the new rows",
+        description = "A column that only increases for new or updated rows, such as an update timestamp or an identity column"
+    )
+    @PluginProperty(group = "main")
+    private Property<String> watermarkColumn;
+
+    @Schema(
+        title = "Watermark of the first poll",
+        description = "Only rows with a greater watermarkColumn are read by the first poll; all rows are read when not set"
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> initialWatermark;
+
+    @Schema(
+        title = "How to handle the new rows",
+        description = "STORE writes the new rows to an Ion file in internal storage, FETCH returns them in the `rows` output of the trigger"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<FetchType> fetchType = Property.ofValue(FetchType.STORE);
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+        String column = runContext.render(watermarkColumn).as(String.class).orElseThrow();
+        String base = runContext.render(sql).as(String.class).orElseThrow().strip();
+        if (base.endsWith(";")) {
+            base = base.substring(0, base.length() - 1);
+        }
+
+        KVStore kvStore = runContext.namespaceKv(context.getNamespace());
+        String key = KEY_PREFIX + context.getFlowId() + "_" + context.getTriggerId();
+        String lowerPredicate = lowerPredicate(runContext, kvStore, key, column);
+
+        var max = query(FetchType.FETCH_ONE,
+            "SELECT CAST(max(" + column + ") AS STRING) AS watermark, typeof(max(" + column + ")) AS watermark_type" +
+            " FROM (" + base + ") AS kestra_trigger" +
+            (lowerPredicate == null ? "" : " WHERE " + lowerPredicate)
+        ).run(runContext);
+
+        Object watermark = max.getRow() == null ? null : max.getRow().get("watermark");
+        if (watermark == null) {
+            runContext.logger().debug("No new rows for watermark column '{}'", column);
+            return Optional.empty();
+        }
+
+        String type = String.valueOf(max.getRow().get("watermark_type"));
+        if (!SqlLiterals.isType(type)) {
+            throw new IllegalStateException("Unexpected type '" + type + "' of the watermark column '" + column + "'");
+        }
+
+        String upperPredicate = column + " <= " + SqlLiterals.cast(watermark.toString(), type);
+        var output = query(runContext.render(fetchType).as(FetchType.class).orElse(FetchType.STORE),
+            "SELECT * FROM (" + base + ") AS kestra_trigger" +
+            " WHERE " + (lowerPredicate == null ? "" : lowerPredicate + " AND ") + upperPredicate
+        ).run(runContext);
+
+        // the rows are already stored or fetched, the next poll starts after them
+        kvStore.put(key, new KVValueAndMetadata(
+            new KVMetadata("Watermark of the Databricks SQL trigger " + context.getTriggerId(), (Duration) null),
+            Map.of("value", watermark.toString(), "type", type)
+        ));
+
+        runContext.logger().info("Found {} new rows up to the watermark {}", output.getSize(), watermark);
+        if (Optional.ofNullable(output.getSize()).orElse(0L) == 0) {
+            return Optional.empty();
+        }
+
+        Execution execution = TriggerService.generateExecution(this, conditionContext, context, output);
+        return Optional.of(execution);
+    }
+
+    private String lowerPredicate(RunContext runContext, KVStore kvStore, String key, String column) throws Exception {
+        Optional<KVValue> previous = kvStore.getValue(key);
+        if (previous.isPresent() && previous.get().value() instanceof Map<?, ?> map) {
+            return column + " > " + SqlLiterals.cast(String.valueOf(map.get("value")), String.valueOf(map.get("type")));
+        }
+
+        return runContext.render(initialWatermark).as(String.class)
+            .map(initial -> column + " > " + SqlLiterals.literal(initial))
+            .orElse(null);
+    }
+
+    private Query query(FetchType queryFetchType, String query) {
+        return Query.builder()
+            .id(getId())
+            .type(Query.class.getName())
+            .host(host)
+            .httpPath(httpPath)
+            .catalog(catalog)
+            .schema(schema)
+            .accessToken(accessToken)
+            .properties(properties)
+            .timeZoneId(timeZoneId)
+            .enableArrow(enableArrow)
+            .connectionPool(connectionPool)
+            .sql(Property.ofValue(query))
+            .fetchType(Property.ofValue(queryFetchType))
+            .build();
+    }
+}
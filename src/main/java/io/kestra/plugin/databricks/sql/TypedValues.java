@@ -0,0 +1,96 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Cell values, as read by the {@link ColumnReader column readers}, converted to the representations of the typed file formats.
+ * Timestamps without a zone are taken as UTC.
+ */
+final class TypedValues {
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+
+    private TypedValues() {
+        //utility class pattern
+    }
+
+    static Number number(Object value) {
+        return value instanceof Number number ? number : new BigDecimal(value.toString());
+    }
+
+    static boolean bool(Object value) {
+        return value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString());
+    }
+
+    /**
+     * The decimal with the scale of its column, a value with more digits than the column is an error.
+     */
+    static BigDecimal decimal(Object value, int scale) {
+        BigDecimal decimal = value instanceof BigDecimal number ? number : new BigDecimal(value.toString());
+        return decimal.setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    static int epochDay(Object value) throws IOException {
+        if (value instanceof LocalDate date) {
+            return Math.toIntExact(date.toEpochDay());
+        } else if (value instanceof LocalDateTime dateTime) {
+            return Math.toIntExact(dateTime.toLocalDate().toEpochDay());
+        } else if (value instanceof ZonedDateTime dateTime) {
+            return Math.toIntExact(dateTime.toLocalDate().toEpochDay());
+        } else if (value instanceof OffsetDateTime dateTime) {
+            return Math.toIntExact(dateTime.toLocalDate().toEpochDay());
+        }
+
+        throw new IOException("Unable to write a value of " + value.getClass().getName() + " as a date");
+    }
+
+    static long epochMicros(Object value) throws IOException {
+        Instant instant;
+        if (value instanceof Instant current) {
+            instant = current;
+        } else if (value instanceof ZonedDateTime dateTime) {
+            instant = dateTime.toInstant();
+        } else if (value instanceof OffsetDateTime dateTime) {
+            instant = dateTime.toInstant();
+        } else if (value instanceof LocalDateTime dateTime) {
+            instant = dateTime.toInstant(ZoneOffset.UTC);
+        } else {
+            throw new IOException("Unable to write a value of " + value.getClass().getName() + " as a timestamp");
+        }
+
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    /**
+     * The value as text: nested values as JSON, like the CSV format, and the others as their ISO-8601 or plain text.
+     */
+    static String text(Object value) throws IOException {
+        if (value instanceof String string) {
+            return string;
+        } else if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        } else if (value instanceof ZonedDateTime dateTime) {
+            return dateTime.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } else if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } else if (value instanceof Map<?, ?> || value instanceof Collection<?>) {
+            return JSON_MAPPER.writeValueAsString(value);
+        }
+
+        return value.toString();
+    }
+}
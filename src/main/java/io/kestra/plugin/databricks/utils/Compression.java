@@ -0,0 +1,45 @@
+package io.kestra.plugin.databricks.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+/**
+ * Codec applied while writing a file to internal storage.
+ */
+public enum Compression {
+    NONE(""),
+    GZIP(".gz"),
+    ZSTD(".zst"),
+    LZ4(".lz4");
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    Compression(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * The suffix appended to the file extension, empty for {@link #NONE}.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Wraps the output in a compressing stream, closing it finishes the compressed stream and closes the output.
+     */
+    public OutputStream compress(OutputStream outputStream) throws IOException {
+        return switch (this) {
+            case NONE -> outputStream;
+            case GZIP -> new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(outputStream);
+            case LZ4 -> new LZ4FrameOutputStream(outputStream);
+        };
+    }
+}
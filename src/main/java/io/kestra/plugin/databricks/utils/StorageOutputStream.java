@@ -0,0 +1,204 @@
+package io.kestra.plugin.databricks.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import io.kestra.core.runners.RunContext;
+
+/**
+ * An output stream uploaded to internal storage while it is written, without a local file.
+ * <p>
+ * Written bytes are handed over by chunks to an upload running on the given executor,
+ * through a bounded queue so that at most {@code QUEUE_CAPACITY} chunks are in memory; writes block while the upload is behind.
+ * Closing the stream ends the upload, {@link #getUri()} waits for it.
+ */
+public final class StorageOutputStream extends OutputStream {
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final int QUEUE_CAPACITY = 8;
+    private static final byte[] END = new byte[0];
+    private static final byte[] ABORT = new byte[0];
+
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final CompletableFuture<URI> upload;
+    private byte[] chunk = new byte[CHUNK_SIZE];
+    private int position = 0;
+    private boolean closed = false;
+
+    public StorageOutputStream(RunContext runContext, String name, Executor executor) {
+        this.upload = CompletableFuture.supplyAsync(
+            () -> {
+                try (InputStream inputStream = new ChunkInputStream()) {
+                    return runContext.storage().putFile(inputStream, name);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            },
+            executor
+        );
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        chunk[position++] = (byte) b;
+        if (position == CHUNK_SIZE) {
+            sendChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int length = Math.min(len, CHUNK_SIZE - position);
+            System.arraycopy(b, off, chunk, position, length);
+            position += length;
+            off += length;
+            len -= length;
+
+            if (position == CHUNK_SIZE) {
+                sendChunk();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        sendChunk();
+        send(END);
+    }
+
+    /**
+     * Stops the upload after a failure of the writer, the upload fails instead of storing a truncated file.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        queue.clear();
+        queue.offer(ABORT);
+    }
+
+    /**
+     * The upload, completed with the URI of the stored file once the stream is closed.
+     */
+    public CompletableFuture<URI> getUpload() {
+        return upload;
+    }
+
+    /**
+     * Waits for the end of the upload, the stream must be closed first.
+     */
+    public URI getUri() throws IOException {
+        try {
+            return upload.join();
+        } catch (CompletionException e) {
+            throw new IOException("Unable to upload to internal storage", e.getCause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void sendChunk() throws IOException {
+        if (position == 0) {
+            return;
+        }
+
+        send(position == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, position));
+        chunk = new byte[CHUNK_SIZE];
+        position = 0;
+    }
+
+    private void send(byte[] bytes) throws IOException {
+        try {
+            // the queue only drains while the upload is running
+            while (!queue.offer(bytes, 100, TimeUnit.MILLISECONDS)) {
+                if (upload.isDone()) {
+                    getUri();
+                    throw new IOException("The upload to internal storage ended before the end of the file");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading to internal storage");
+        }
+    }
+
+    private final class ChunkInputStream extends InputStream {
+        private byte[] current = new byte[0];
+        private int offset = 0;
+
+        @Override
+        public int read() throws IOException {
+            if (!next()) {
+                return -1;
+            }
+
+            return current[offset++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!next()) {
+                return -1;
+            }
+
+            int length = Math.min(len, current.length - offset);
+            System.arraycopy(current, offset, b, off, length);
+            offset += length;
+            return length;
+        }
+
+        private boolean next() throws IOException {
+            if (current == END) {
+                return false;
+            }
+            if (current == ABORT) {
+                throw new IOException("The upload to internal storage was aborted");
+            }
+
+            while (offset == current.length) {
+                try {
+                    current = queue.take();
+                    offset = 0;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while uploading to internal storage");
+                }
+
+                if (current == END) {
+                    return false;
+                }
+                if (current == ABORT) {
+                    throw new IOException("The upload to internal storage was aborted");
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.lang.reflect.Proxy;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AbstractJdbcTaskTest {
+    private static final DatabricksCellConverter CELL_CONVERTER = new DatabricksCellConverter(ZoneId.of("UTC"));
+
+    @Test
+    void warehouseId() {
+        assertThat(AbstractJdbcTask.warehouseId("/sql/1.0/warehouses/abc123"), is("abc123"));
+        assertThat(AbstractJdbcTask.warehouseId("sql/1.0/warehouses/abc123/"), is("abc123"));
+        assertThat(AbstractJdbcTask.warehouseId(" /sql/1.0/warehouses/abc123 "), is("abc123"));
+        assertThat(AbstractJdbcTask.warehouseId("/sql/1.0/warehouses/"), nullValue());
+        assertThat(AbstractJdbcTask.warehouseId("sql/protocolv1/o/1234567890/0123-456789-abcdef"), nullValue());
+    }
+
+    @Test
+    void bindWithEmptyMetadata() throws Exception {
+        List<String> calls = new ArrayList<>();
+        PreparedStatement ps = preparedStatement(calls);
+
+        AbstractJdbcTask.bind(ps, ParameterType.of(ps.getParameterMetaData()), Arrays.asList(1, "a", null), CELL_CONVERTER, null);
+
+        assertThat(calls, contains("setObject(1, 1)", "setObject(2, a)", "setObject(3, null)"));
+    }
+
+    @Test
+    void bindWithMismatchedMetadata() throws Exception {
+        List<String> calls = new ArrayList<>();
+        PreparedStatement ps = preparedStatement(calls, String.class, String.class);
+
+        AbstractJdbcTask.bind(ps, ParameterType.of(ps.getParameterMetaData()), List.of(1, "a"), CELL_CONVERTER, null);
+
+        assertThat(calls, contains("setObject(1, 1)", "setString(2, a)"));
+    }
+
+    @Test
+    void bindWithoutMetadata() throws Exception {
+        List<String> calls = new ArrayList<>();
+
+        AbstractJdbcTask.bind(preparedStatement(calls), null, List.of(1L), CELL_CONVERTER, null);
+
+        assertThat(calls, contains("setObject(1, 1)"));
+    }
+
+    /**
+     * A prepared statement recording the bound values, whose metadata reports the given parameter classes.
+     */
+    static PreparedStatement preparedStatement(List<String> calls, Class<?>... parameterClasses) {
+        ParameterMetaData metaData = (ParameterMetaData) Proxy.newProxyInstance(
+            AbstractJdbcTaskTest.class.getClassLoader(),
+            new Class<?>[]{ParameterMetaData.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getParameterCount" -> parameterClasses.length;
+                case "getParameterClassName" -> parameterClasses[(int) args[0] - 1].getName();
+                case "getParameterType" -> Types.VARCHAR;
+                case "getParameterTypeName" -> "STRING";
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        );
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+            AbstractJdbcTaskTest.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("getParameterMetaData")) {
+                    return metaData;
+                } else if (method.getName().startsWith("set")) {
+                    calls.add(method.getName() + "(" + args[0] + ", " + args[1] + ")");
+                    return null;
+                } else if (method.getName().equals("addBatch")) {
+                    calls.add("addBatch()");
+                    return null;
+                }
+
+                throw new UnsupportedOperationException(method.getName());
+            }
+        );
+    }
+}
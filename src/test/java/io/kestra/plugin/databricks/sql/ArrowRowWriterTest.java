@@ -0,0 +1,98 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ArrowRowWriterTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @Test
+    void write() throws Exception {
+        byte[] arrow = write(RowDecoderTest.rows());
+
+        try (BufferAllocator allocator = new RootAllocator(); ArrowFileReader reader = reader(arrow, allocator)) {
+            assertThat(reader.loadNextBatch(), is(true));
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getRowCount(), is(2));
+
+            assertThat(((BigIntVector) root.getVector("id")).get(0), is(1L));
+            assertThat(((VarCharVector) root.getVector("name")).getObject(0).toString(), is("first"));
+            assertThat(((DecimalVector) root.getVector("amount")).getObject(0), is(new BigDecimal("12.34")));
+            assertThat(((DateDayVector) root.getVector("day")).get(0), is((int) LocalDate.of(2024, 1, 31).toEpochDay()));
+            assertThat(
+                ((TimeStampMicroTZVector) root.getVector("created")).get(0),
+                is(Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 15, 30)).getTime() * 1_000)
+            );
+
+            assertThat(((BigIntVector) root.getVector("id")).get(1), is(2L));
+            assertThat(root.getVector("name").isNull(1), is(true));
+            assertThat(root.getVector("amount").isNull(1), is(true));
+        }
+    }
+
+    @Test
+    void batches() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ArrowRowWriter writer = new ArrowRowWriter(output)) {
+            ResultColumns columns = AvroRowWriterTest.columns("a");
+            writer.start(columns);
+            for (int i = 0; i <= ArrowRowWriter.BATCH_SIZE; i++) {
+                writer.write(columns.names(), new Object[]{String.valueOf(i)});
+            }
+        }
+
+        try (BufferAllocator allocator = new RootAllocator(); ArrowFileReader reader = reader(output.toByteArray(), allocator)) {
+            assertThat(reader.getRecordBlocks(), hasSize(2));
+        }
+    }
+
+    @Test
+    void emptyResult() throws Exception {
+        byte[] arrow = write(List.of());
+
+        try (BufferAllocator allocator = new RootAllocator(); ArrowFileReader reader = reader(arrow, allocator)) {
+            assertThat(reader.getVectorSchemaRoot().getSchema().getFields(), hasSize(RowDecoderTest.COLUMNS.size()));
+            assertThat(reader.getRecordBlocks(), empty());
+        }
+    }
+
+    private static byte[] write(List<Object[]> rows) throws Exception {
+        ResultSet rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ArrowRowWriter writer = new ArrowRowWriter(output)) {
+            writer.start(decoder.getColumns());
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    private static ArrowFileReader reader(byte[] arrow, BufferAllocator allocator) {
+        return new ArrowFileReader(new ByteArrayReadableSeekableByteChannel(arrow), allocator);
+    }
+}
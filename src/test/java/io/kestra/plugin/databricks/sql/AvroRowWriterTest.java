@@ -0,0 +1,152 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AvroRowWriterTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @Test
+    void write() throws Exception {
+        List<GenericRecord> records = read(write(RowDecoderTest.rows()));
+
+        assertThat(records, hasSize(2));
+        GenericRecord first = records.getFirst();
+        assertThat(first.get("id"), is(1L));
+        assertThat(first.get("count"), is(42));
+        assertThat(first.get("ratio"), is(0.5D));
+        assertThat(first.get("enabled"), is(true));
+        assertThat(first.get("name").toString(), is("first"));
+        assertThat(first.get("amount"), is(new BigDecimal("12.34")));
+        assertThat(first.get("day"), is(LocalDate.of(2024, 1, 31)));
+        assertThat(first.get("created"), is(Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 15, 30)).toInstant()));
+        assertThat(first.get("payload"), is(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+
+        GenericRecord second = records.get(1);
+        assertThat(second.get("id"), is(2L));
+        assertThat(second.get("name"), nullValue());
+        assertThat(second.get("amount"), nullValue());
+    }
+
+    @Test
+    void typedSchema() throws Exception {
+        Schema schema = AvroRowWriter.schema(RowDecoder.of(SyntheticResultSet.of(RowDecoderTest.COLUMNS, List.of()), new DatabricksCellConverter(ZONE_ID), null).getColumns());
+
+        assertThat(type(schema, "id").getType(), is(Schema.Type.LONG));
+        assertThat(type(schema, "count").getType(), is(Schema.Type.INT));
+        assertThat(type(schema, "name").getType(), is(Schema.Type.STRING));
+        assertThat(type(schema, "amount").getLogicalType(), is(LogicalTypes.decimal(10, 2)));
+        assertThat(type(schema, "day").getLogicalType(), is(LogicalTypes.date()));
+        assertThat(type(schema, "created").getLogicalType(), is(LogicalTypes.timestampMicros()));
+        assertThat(type(schema, "payload").getType(), is(Schema.Type.BYTES));
+    }
+
+    @Test
+    void decimalWithoutPrecision() {
+        Schema schema = AvroRowWriter.schema(new ResultColumns(new String[]{"amount"}, new int[]{Types.DECIMAL}, new String[]{"DECIMAL"}, new int[]{0}, new int[]{0}));
+
+        assertThat(type(schema, "amount").getType(), is(Schema.Type.STRING));
+    }
+
+    @Test
+    void emptyResult() throws Exception {
+        byte[] avro = write(List.of());
+
+        try (DataFileStream<GenericRecord> stream = new DataFileStream<>(new ByteArrayInputStream(avro), new GenericDatumReader<>())) {
+            assertThat(stream.getSchema().getFields(), hasSize(RowDecoderTest.COLUMNS.size()));
+            assertThat(stream.hasNext(), is(false));
+        }
+    }
+
+    @Test
+    void validNames() {
+        Schema schema = AvroRowWriter.schema(columns("id", "1st", "a-b", "a_b", "total amount"));
+
+        assertThat(schema.getFields().stream().map(Schema.Field::name).toList(), contains("id", "_1st", "a_b", "a_b_1", "total_amount"));
+        assertThat(schema.getField("total_amount").doc(), is("total amount"));
+    }
+
+    @Test
+    void singleResultSet() throws Exception {
+        AvroRowWriter writer = new AvroRowWriter(new ByteArrayOutputStream());
+        writer.start(columns("a"));
+        writer.write(new String[]{"a"}, new Object[]{"1"});
+
+        assertThrows(IOException.class, () -> writer.start(columns("b")));
+    }
+
+    @Test
+    void rowsBeforeColumns() {
+        AvroRowWriter writer = new AvroRowWriter(new ByteArrayOutputStream());
+
+        assertThrows(IOException.class, () -> writer.write(new String[]{"a"}, new Object[]{"1"}));
+    }
+
+    static ResultColumns columns(String... names) {
+        int[] types = new int[names.length];
+        Arrays.fill(types, Types.VARCHAR);
+        String[] typeNames = new String[names.length];
+        Arrays.fill(typeNames, "STRING");
+
+        return new ResultColumns(names, types, typeNames, new int[names.length], new int[names.length]);
+    }
+
+    private static Schema type(Schema schema, String field) {
+        return schema.getField(field).schema().getTypes().get(1);
+    }
+
+    private static byte[] write(List<Object[]> rows) throws Exception {
+        ResultSet rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (AvroRowWriter writer = new AvroRowWriter(output)) {
+            writer.start(decoder.getColumns());
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    private static List<GenericRecord> read(byte[] avro) throws IOException {
+        GenericData data = new GenericData();
+        data.addLogicalTypeConversion(new Conversions.DecimalConversion());
+        data.addLogicalTypeConversion(new TimeConversions.DateConversion());
+        data.addLogicalTypeConversion(new TimeConversions.TimestampMicrosConversion());
+
+        List<GenericRecord> records = new ArrayList<>();
+        try (DataFileStream<GenericRecord> stream = new DataFileStream<>(new ByteArrayInputStream(avro), new GenericDatumReader<>(null, null, data))) {
+            stream.forEach(records::add);
+        }
+
+        return records;
+    }
+}
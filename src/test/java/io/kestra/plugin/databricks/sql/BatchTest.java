@@ -0,0 +1,95 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.sql.PreparedStatement;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+class BatchTest {
+    private static final String TOKEN = "";
+    private static final String HOST = "";
+    private static final String HTTP_PATH = "";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    @Disabled("Need an account to work")
+    void run() throws Exception {
+        var task = Batch.builder()
+            .id(IdUtils.create())
+            .type(Batch.class.getName())
+            .accessToken(Property.ofValue(TOKEN))
+            .host(Property.ofValue(HOST))
+            .httpPath(Property.ofValue(HTTP_PATH))
+            .from(Property.ofExpression("{{ file }}"))
+            .sql(Property.ofValue("INSERT INTO kestra_batch_test (id, name) VALUES (?, ?)"))
+            .columns(Property.ofValue(List.of("id", "name")))
+            .chunk(Property.ofValue(2))
+            .build();
+
+        var runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (int i = 0; i < 5; i++) {
+                FileSerde.write(output, Map.of("id", i, "name", "row-" + i));
+            }
+        }
+        URI uri = runContext.storage().putFile(file);
+
+        runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of("file", uri.toString()));
+        var output = task.run(runContext);
+        assertThat(output.getRowCount(), is(5L));
+    }
+
+    @Test
+    void addBatch() throws Exception {
+        List<String> calls = new ArrayList<>();
+        // the driver reports no parameter before the values are bound
+        PreparedStatement ps = AbstractJdbcTaskTest.preparedStatement(calls);
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("name", "first");
+        first.put("id", 1);
+        first.put("ignored", true);
+
+        Batch.addBatch(
+            ps,
+            ParameterType.of(ps.getParameterMetaData()),
+            List.of(first, List.of(2, "second")),
+            List.of("id", "name"),
+            new DatabricksCellConverter(ZoneId.of("UTC")),
+            null
+        );
+
+        assertThat(calls, contains(
+            "setObject(1, 1)", "setObject(2, first)", "addBatch()",
+            "setObject(1, 2)", "setObject(2, second)", "addBatch()"
+        ));
+    }
+}
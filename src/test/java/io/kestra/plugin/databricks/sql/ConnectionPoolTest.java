@@ -0,0 +1,208 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.utils.IdUtils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConnectionPoolTest {
+    private static final ConnectionPool.Settings SETTINGS = new ConnectionPool.Settings(2, Duration.ofMinutes(5), Duration.ofMillis(100), 2);
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final AtomicBoolean valid = new AtomicBoolean(true);
+    private final AtomicInteger prepared = new AtomicInteger();
+    private final AtomicInteger closedStatements = new AtomicInteger();
+
+    @Test
+    void reuseIdleConnection() throws Exception {
+        var pool = ConnectionPool.getInstance();
+        String key = IdUtils.create();
+
+        Connection first;
+        try (var lease = pool.borrow(key, SETTINGS, this::connection)) {
+            assertThat(lease.isHit(), is(false));
+            first = lease.getConnection();
+        }
+
+        try (var lease = pool.borrow(key, SETTINGS, this::connection)) {
+            assertThat(lease.isHit(), is(true));
+            assertThat(lease.getConnection(), sameInstance(first));
+        }
+
+        assertThat(opened.get(), is(1));
+        assertThat(closed.get(), is(0));
+    }
+
+    @Test
+    void partitionByKey() throws Exception {
+        var pool = ConnectionPool.getInstance();
+
+        try (var lease = pool.borrow(IdUtils.create(), SETTINGS, this::connection)) {
+            assertThat(lease.isHit(), is(false));
+        }
+        try (var lease = pool.borrow(IdUtils.create(), SETTINGS, this::connection)) {
+            assertThat(lease.isHit(), is(false));
+        }
+
+        assertThat(opened.get(), is(2));
+    }
+
+    @Test
+    void maxSize() throws Exception {
+        var pool = ConnectionPool.getInstance();
+        String key = IdUtils.create();
+
+        try (
+            var first = pool.borrow(key, SETTINGS, this::connection);
+            var second = pool.borrow(key, SETTINGS, this::connection)
+        ) {
+            assertThrows(SQLTimeoutException.class, () -> pool.borrow(key, SETTINGS, this::connection));
+        }
+
+        try (var lease = pool.borrow(key, SETTINGS, this::connection)) {
+            assertThat(lease.isHit(), is(true));
+            assertThat(lease.getWaitDuration(), lessThan(Duration.ofMillis(100)));
+        }
+    }
+
+    @Test
+    void discardInvalidConnection() throws Exception {
+        var pool = ConnectionPool.getInstance();
+        String key = IdUtils.create();
+
+        try (var lease = pool.borrow(key, SETTINGS, this::connection)) {
+            assertThat(lease.isHit(), is(false));
+        }
+
+        valid.set(false);
+        try (var lease = pool.borrow(key, SETTINGS, this::connection)) {
+            assertThat(lease.isHit(), is(false));
+            lease.invalidate();
+        }
+
+        assertThat(opened.get(), is(2));
+        assertThat(closed.get(), is(2));
+    }
+
+    @Test
+    void closeExpiredConnection() throws Exception {
+        var pool = ConnectionPool.getInstance();
+        String key = IdUtils.create();
+        var settings = new ConnectionPool.Settings(2, Duration.ZERO, Duration.ofMillis(100), 2);
+
+        try (var lease = pool.borrow(key, settings, this::connection)) {
+            assertThat(lease.isHit(), is(false));
+        }
+        Thread.sleep(5);
+        try (var lease = pool.borrow(key, settings, this::connection)) {
+            assertThat(lease.isHit(), is(false));
+        }
+
+        assertThat(opened.get(), is(2));
+        assertThat(closed.get(), is(1));
+    }
+
+    @Test
+    void cachePreparedStatements() throws Exception {
+        var pool = ConnectionPool.getInstance();
+        String key = IdUtils.create();
+
+        try (var lease = pool.borrow(key, SETTINGS, this::connection)) {
+            lease.getPooledConnection().prepareStatement("SELECT ?").close();
+        }
+        try (var lease = pool.borrow(key, SETTINGS, this::connection)) {
+            var pooled = lease.getPooledConnection();
+            // reused from the first lease, closing it only cleared its parameters
+            pooled.prepareStatement("SELECT ?").close();
+            assertThat(prepared.get(), is(1));
+            assertThat(closedStatements.get(), is(0));
+
+            // the least recently used statement is closed past the cache size
+            pooled.prepareStatement("SELECT ?, ?").close();
+            pooled.prepareStatement("SELECT ?").close();
+            pooled.prepareStatement("SELECT ?, ?, ?").close();
+            assertThat(prepared.get(), is(3));
+            assertThat(closedStatements.get(), is(1));
+            assertThat(pooled.cachedStatements(), is(2));
+
+            lease.invalidate();
+        }
+
+        // closing the connection closes its cached statements
+        assertThat(closedStatements.get(), is(3));
+    }
+
+    @Test
+    void disabledStatementCache() throws Exception {
+        var pool = ConnectionPool.getInstance();
+        var settings = new ConnectionPool.Settings(2, Duration.ofMinutes(5), Duration.ofMillis(100), 0);
+
+        try (var lease = pool.borrow(IdUtils.create(), settings, this::connection)) {
+            lease.getPooledConnection().prepareStatement("SELECT ?").close();
+            lease.getPooledConnection().prepareStatement("SELECT ?").close();
+            assertThat(lease.getPooledConnection().cachedStatements(), is(0));
+        }
+
+        assertThat(prepared.get(), is(2));
+        assertThat(closedStatements.get(), is(2));
+    }
+
+    private PreparedStatement preparedStatement() {
+        prepared.incrementAndGet();
+        AtomicBoolean isClosed = new AtomicBoolean(false);
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "clearParameters" -> null;
+                case "isClosed" -> isClosed.get();
+                case "close" -> {
+                    if (!isClosed.getAndSet(true)) {
+                        closedStatements.incrementAndGet();
+                    }
+                    yield null;
+                }
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        );
+    }
+
+    private Connection connection() {
+        opened.incrementAndGet();
+        AtomicBoolean isClosed = new AtomicBoolean(false);
+
+        return (Connection) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "isValid" -> valid.get();
+                case "prepareStatement" -> preparedStatement();
+                case "isClosed" -> isClosed.get();
+                case "close" -> {
+                    if (!isClosed.getAndSet(true)) {
+                        closed.incrementAndGet();
+                    }
+                    yield null;
+                }
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        );
+    }
+}
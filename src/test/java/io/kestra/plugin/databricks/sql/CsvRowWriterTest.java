@@ -0,0 +1,65 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CsvRowWriterTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @Test
+    void write() throws Exception {
+        String csv = write(RowDecoderTest.COLUMNS, RowDecoderTest.rows(), true);
+        // timestamps are created in the JVM default zone by the synthetic result set
+        String created = Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 15, 30)).toInstant().atZone(ZONE_ID).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+
+        assertThat(csv, is(
+            "id,count,ratio,enabled,name,amount,day,created,payload\n" +
+            "1,42,0.5,true,first,12.34,2024-01-31," + created + ",AQID\n" +
+            "2,,,,,,,,\n"
+        ));
+    }
+
+    @Test
+    void quoting() throws Exception {
+        List<SyntheticResultSet.Column> columns = List.of(new SyntheticResultSet.Column("text", Types.VARCHAR, "STRING"));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"a,b"});
+        rows.add(new Object[]{"say \"hi\""});
+        rows.add(new Object[]{"two\nlines"});
+        rows.add(new Object[]{"plain"});
+
+        assertThat(write(columns, rows, false), is("\"a,b\"\n\"say \"\"hi\"\"\"\n\"two\nlines\"\nplain\n"));
+    }
+
+    @Test
+    void emptyResult() throws Exception {
+        assertThat(write(RowDecoderTest.COLUMNS, List.of(), true), is(""));
+    }
+
+    private static String write(List<SyntheticResultSet.Column> columns, List<Object[]> rows, boolean header) throws Exception {
+        ResultSet rs = SyntheticResultSet.of(columns, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (CsvRowWriter writer = new CsvRowWriter(output, header)) {
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,147 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Struct;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class DatabricksCellConverterTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @Test
+    void complexTypesAsJson() throws Exception {
+        Map<String, Object> row = decode(
+            List.of(
+                new SyntheticResultSet.Column("tags", Types.VARCHAR, "ARRAY<STRING>"),
+                new SyntheticResultSet.Column("scores", Types.VARCHAR, "MAP<STRING,INT>"),
+                new SyntheticResultSet.Column("address", Types.VARCHAR, "STRUCT<city:STRING,zip:ARRAY<INT>>")
+            ),
+            new Object[]{"[\"a\",\"b\"]", "{\"x\":1}", "{\"city\":\"Paris\",\"zip\":[75001,75002]}"}
+        );
+
+        assertThat(row.get("tags"), is(List.of("a", "b")));
+        assertThat(row.get("scores"), is(Map.of("x", 1)));
+        assertThat(row.get("address"), is(Map.of("city", "Paris", "zip", List.of(75001, 75002))));
+    }
+
+    @Test
+    void nativeComplexTypes() throws Exception {
+        Map<Object, Object> innerMap = new LinkedHashMap<>();
+        innerMap.put(1, array(Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 0))));
+
+        Map<String, Object> row = decode(
+            List.of(
+                new SyntheticResultSet.Column("numbers", Types.ARRAY, "ARRAY<BIGINT>"),
+                new SyntheticResultSet.Column("person", Types.STRUCT, "STRUCT<`first name`:STRING,tags:MAP<INT,ARRAY<TIMESTAMP_NTZ>>>")
+            ),
+            new Object[]{array(1L, null, 3L), struct("Ada", innerMap)}
+        );
+
+        List<Object> numbers = new ArrayList<>();
+        numbers.add(1L);
+        numbers.add(null);
+        numbers.add(3L);
+        assertThat(row.get("numbers"), is(numbers));
+
+        assertThat(row.get("person"), is(Map.of(
+            "first name", "Ada",
+            "tags", Map.of("1", List.of(LocalDateTime.of(2024, 1, 31, 10, 0)))
+        )));
+    }
+
+    @Test
+    void intervals() throws Exception {
+        Map<String, Object> row = decode(
+            List.of(
+                new SyntheticResultSet.Column("months", Types.VARCHAR, "INTERVAL YEAR TO MONTH"),
+                new SyntheticResultSet.Column("negative_months", Types.VARCHAR, "INTERVAL YEAR TO MONTH"),
+                new SyntheticResultSet.Column("seconds", Types.VARCHAR, "INTERVAL DAY TO SECOND"),
+                new SyntheticResultSet.Column("negative_seconds", Types.VARCHAR, "INTERVAL DAY TO SECOND")
+            ),
+            new Object[]{"1-2", "-0-3", "1 02:03:04.500000000", "-0 00:00:01"}
+        );
+
+        assertThat(row.get("months"), is(Period.of(1, 2, 0)));
+        assertThat(row.get("negative_months"), is(Period.ofMonths(-3)));
+        assertThat(row.get("seconds"), is(Duration.ofDays(1).plusHours(2).plusMinutes(3).plusSeconds(4).plusMillis(500)));
+        assertThat(row.get("negative_seconds"), is(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void binaryAndTimestampWithoutTimeZone() throws Exception {
+        Map<String, Object> row = decode(
+            List.of(
+                new SyntheticResultSet.Column("payload", Types.BINARY, "BINARY"),
+                new SyntheticResultSet.Column("local", Types.TIMESTAMP, "TIMESTAMP_NTZ")
+            ),
+            new Object[]{new byte[]{1, 2}, Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 15, 30))}
+        );
+
+        assertThat(row.get("payload"), is(new byte[]{1, 2}));
+        assertThat(row.get("local"), is(LocalDateTime.of(2024, 1, 31, 10, 15, 30)));
+    }
+
+    @Test
+    void nullComplexValues() throws Exception {
+        Map<String, Object> row = decode(
+            List.of(new SyntheticResultSet.Column("tags", Types.ARRAY, "ARRAY<STRING>")),
+            new Object[]{null}
+        );
+
+        assertThat(row.get("tags"), nullValue());
+    }
+
+    @Test
+    void typeArguments() {
+        assertThat(AbstractCellConverter.typeArguments("MAP<INT,ARRAY<DECIMAL(10,2)>>"), contains("INT", "ARRAY<DECIMAL(10,2)>"));
+        assertThat(AbstractCellConverter.typeArguments("STRING"), empty());
+    }
+
+    private static Map<String, Object> decode(List<SyntheticResultSet.Column> columns, Object[] values) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(values);
+        ResultSet rs = SyntheticResultSet.of(columns, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        assertThat(rs.next(), is(true));
+        return decoder.decode(rs);
+    }
+
+    private static Array array(Object... values) {
+        return (Array) Proxy.newProxyInstance(
+            DatabricksCellConverterTest.class.getClassLoader(),
+            new Class<?>[]{Array.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getArray" -> values;
+                default -> throw new SQLFeatureNotSupportedException(method.getName());
+            }
+        );
+    }
+
+    private static Struct struct(Object... attributes) {
+        return (Struct) Proxy.newProxyInstance(
+            DatabricksCellConverterTest.class.getClassLoader(),
+            new Class<?>[]{Struct.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getAttributes" -> attributes;
+                default -> throw new SQLFeatureNotSupportedException(method.getName());
+            }
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+
+import com.google.api.client.util.Strings;
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.plugin.databricks.AbstractTask;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@KestraTest
+@DisabledIf(
+    value = "canNotBeEnabled",
+    disabledReason = "Disabled because it requires Databricks secrets: host, token, warehouseId"
+)
+class ExecuteStatementTest {
+    protected static final String HOST = System.getenv("DATABRICKS_HOST");
+    protected static final String TOKEN = System.getenv("DATABRICKS_TOKEN");
+    protected static final String WAREHOUSE_ID = System.getenv("DATABRICKS_WAREHOUSE_ID");
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run() throws Exception {
+        var task = ExecuteStatement.builder()
+            .id(IdUtils.create())
+            .type(ExecuteStatement.class.getName())
+            .authentication(
+                AbstractTask.AuthenticationConfig.builder().token(Property.ofValue(TOKEN)).build()
+            )
+            .host(Property.ofValue(HOST))
+            .warehouseId(Property.ofValue(WAREHOUSE_ID))
+            .sql(Property.ofValue("SELECT id FROM range(100000)"))
+            .build();
+
+        var runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        var output = task.run(runContext);
+        assertThat(output.getStatementId(), notNullValue());
+        assertThat(output.getUri(), notNullValue());
+        assertThat(output.getSize(), is(100000L));
+    }
+
+    @Test
+    void submitAndFetch() throws Exception {
+        var submit = ExecuteStatement.builder()
+            .id(IdUtils.create())
+            .type(ExecuteStatement.class.getName())
+            .authentication(
+                AbstractTask.AuthenticationConfig.builder().token(Property.ofValue(TOKEN)).build()
+            )
+            .host(Property.ofValue(HOST))
+            .warehouseId(Property.ofValue(WAREHOUSE_ID))
+            .sql(Property.ofValue("SELECT id FROM range(100000)"))
+            .submitOnly(Property.ofValue(true))
+            .build();
+
+        var submitted = submit.run(TestsUtils.mockRunContext(runContextFactory, submit, ImmutableMap.of()));
+        assertThat(submitted.getStatementId(), notNullValue());
+        assertThat(submitted.getUri(), nullValue());
+
+        var fetch = FetchResult.builder()
+            .id(IdUtils.create())
+            .type(FetchResult.class.getName())
+            .authentication(
+                AbstractTask.AuthenticationConfig.builder().token(Property.ofValue(TOKEN)).build()
+            )
+            .host(Property.ofValue(HOST))
+            .statementId(Property.ofValue(submitted.getStatementId()))
+            .pollInterval(Property.ofValue(Duration.ofSeconds(1)))
+            .build();
+
+        var output = fetch.run(TestsUtils.mockRunContext(runContextFactory, fetch, ImmutableMap.of()));
+        assertThat(output.getStatementId(), is(submitted.getStatementId()));
+        assertThat(output.getUri(), notNullValue());
+        assertThat(output.getSize(), is(100000L));
+    }
+
+    protected static boolean canNotBeEnabled() {
+        return Strings.isNullOrEmpty(HOST) || Strings.isNullOrEmpty(TOKEN) || Strings.isNullOrEmpty(WAREHOUSE_ID);
+    }
+}
@@ -0,0 +1,119 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExternalLinkDownloaderTest {
+    private static final int CHUNK_COUNT = 12;
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        // fake presigned chunk links, the first chunks are the slowest to check that the order is kept
+        server.createContext("/chunks/", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                int index = Integer.parseInt(exchange.getRequestURI().getPath().substring("/chunks/".length()));
+                if (index == 99 || !"chunk".equals(exchange.getRequestHeaders().getFirst("x-test"))) {
+                    exchange.sendResponseHeaders(403, -1);
+                    return;
+                }
+
+                Thread.sleep((CHUNK_COUNT - index) * 10L);
+                byte[] body = ("chunk-" + index + ";").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void downloadInOrder() throws Exception {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+
+        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+            new ExternalLinkDownloader(httpClient, 3, directory).download(
+                CHUNK_COUNT,
+                chunkIndex -> link(chunkIndex),
+                (chunkIndex, inputStream) -> inputStream.transferTo(result)
+            );
+        }
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            expected.append("chunk-").append(i).append(";");
+        }
+        assertThat(result.toString(StandardCharsets.UTF_8), is(expected.toString()));
+        assertThat(maxInFlight.get(), allOf(greaterThan(1), lessThanOrEqualTo(3)));
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.count(), is(0L));
+        }
+    }
+
+    @Test
+    void failedChunk() throws Exception {
+        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+            var downloader = new ExternalLinkDownloader(httpClient, 2, directory);
+
+            var exception = assertThrows(
+                java.io.IOException.class,
+                () -> downloader.download(3, chunkIndex -> link(chunkIndex == 1 ? 99 : chunkIndex), (chunkIndex, inputStream) -> {})
+            );
+            assertThat(exception.getMessage(), containsString("HTTP 403"));
+        }
+    }
+
+    private ExternalLinkDownloader.Link link(long chunkIndex) {
+        return new ExternalLinkDownloader.Link(
+            URI.create("http://localhost:" + server.getAddress().getPort() + "/chunks/" + chunkIndex),
+            Map.of("x-test", "chunk")
+        );
+    }
+}
@@ -0,0 +1,77 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.is;
+
+class JacksonRowWriterTest {
+    private static final ObjectMapper ION_MAPPER = JacksonMapper.ofIon();
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @Test
+    void sameOutputAsRowMapSerialization() throws Exception {
+        assertThat(write(ION_MAPPER, RowDecoderTest.rows()), is(legacy(ION_MAPPER, RowDecoderTest.rows())));
+    }
+
+    @Test
+    void jsonLines() throws Exception {
+        byte[] output = write(JSON_MAPPER, RowDecoderTest.rows());
+
+        assertThat(output, is(legacy(JSON_MAPPER, RowDecoderTest.rows())));
+        assertThat(new String(output, StandardCharsets.UTF_8).split("\n"), arrayWithSize(2));
+    }
+
+    @Test
+    void emptyResult() throws Exception {
+        assertThat(write(ION_MAPPER, List.of()), is(legacy(ION_MAPPER, List.of())));
+        assertThat(write(ION_MAPPER, List.of()).length, is(0));
+        assertThat(write(JSON_MAPPER, List.of()).length, is(0));
+    }
+
+    private static byte[] write(ObjectMapper mapper, List<Object[]> rows) throws Exception {
+        ResultSet rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JacksonRowWriter writer = new JacksonRowWriter(mapper, output)) {
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    // the serialization used before rows were streamed through a single generator
+    private static byte[] legacy(ObjectMapper mapper, List<Object[]> rows) throws Exception {
+        ResultSet rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            while (rs.next()) {
+                Map<String, Object> map = decoder.decode(rs);
+                writer.write(mapper.writeValueAsString(map));
+                writer.write("\n");
+            }
+        }
+
+        return output.toByteArray();
+    }
+}
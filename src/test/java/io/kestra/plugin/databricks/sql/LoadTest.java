@@ -0,0 +1,65 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@KestraTest
+@Disabled("Need an account to work")
+class LoadTest {
+    private static final String TOKEN = "";
+    private static final String HOST = "";
+    private static final String HTTP_PATH = "";
+    private static final String VOLUME_PATH = "";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void ion() throws Exception {
+        var task = Load.builder()
+            .id(IdUtils.create())
+            .type(Load.class.getName())
+            .accessToken(Property.ofValue(TOKEN))
+            .host(Property.ofValue(HOST))
+            .httpPath(Property.ofValue(HTTP_PATH))
+            .from(Property.ofExpression("{{ file }}"))
+            .volumePath(Property.ofValue(VOLUME_PATH))
+            .table(Property.ofValue("kestra_load_test"))
+            .copyOptions(Property.ofValue(Map.of("mergeSchema", "true")))
+            .build();
+
+        var runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (int i = 0; i < 5; i++) {
+                FileSerde.write(output, Map.of("id", i, "name", "row-" + i));
+            }
+        }
+        URI uri = runContext.storage().putFile(file);
+
+        runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of("file", uri.toString()));
+        var output = task.run(runContext);
+        assertThat(output.getRowCount(), is(5L));
+    }
+}
@@ -0,0 +1,47 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NamedParametersTest {
+    @Test
+    void parse() {
+        NamedParameters parsed = NamedParameters.parse("SELECT * FROM orders WHERE country = :country AND amount > :min_amount OR country = :country");
+
+        assertThat(parsed.sql(), is("SELECT * FROM orders WHERE country = ? AND amount > ? OR country = ?"));
+        assertThat(parsed.names(), contains("country", "min_amount", "country"));
+        assertThat(parsed.values(Map.of("country", "FR", "min_amount", 100)), contains("FR", 100, "FR"));
+    }
+
+    @Test
+    void ignoreLiteralsCommentsAndCasts() {
+        String sql = """
+            SELECT ':literal', 'it''s :quoted', 'escaped \\' :still', `:column`, "x:y", amount::STRING -- :comment
+            FROM t /* :block */ WHERE id = :id""";
+        NamedParameters parsed = NamedParameters.parse(sql);
+
+        assertThat(parsed.names(), contains("id"));
+        assertThat(parsed.sql(), is(sql.replace(":id", "?")));
+    }
+
+    @Test
+    void ignoreSemiStructuredPaths() {
+        NamedParameters parsed = NamedParameters.parse("SELECT raw:owner, raw:items[0]:price, `raw data`:owner FROM t WHERE raw:owner = :owner");
+
+        assertThat(parsed.names(), contains("owner"));
+        assertThat(parsed.sql(), is("SELECT raw:owner, raw:items[0]:price, `raw data`:owner FROM t WHERE raw:owner = ?"));
+    }
+
+    @Test
+    void missingValue() {
+        NamedParameters parsed = NamedParameters.parse("SELECT :a, :b");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parsed.values(Map.of("a", 1)));
+        assertThat(e.getMessage(), containsString("'b'"));
+    }
+}
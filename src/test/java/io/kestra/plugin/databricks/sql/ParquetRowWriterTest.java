@@ -0,0 +1,100 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.io.LocalInputFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ParquetRowWriterTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void write() throws Exception {
+        List<GenericRecord> records = read(write(RowDecoderTest.rows()));
+
+        assertThat(records, hasSize(2));
+        GenericRecord first = records.getFirst();
+        assertThat(first.get("id"), is(1L));
+        assertThat(first.get("count"), is(42));
+        assertThat(first.get("enabled"), is(true));
+        assertThat(first.get("name").toString(), is("first"));
+        assertThat(first.get("amount"), is(new BigDecimal("12.34")));
+        assertThat(first.get("day"), is(LocalDate.of(2024, 1, 31)));
+        assertThat(first.get("created"), is(Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 15, 30)).toInstant()));
+
+        GenericRecord second = records.get(1);
+        assertThat(second.get("id"), is(2L));
+        assertThat(second.get("amount"), nullValue());
+    }
+
+    @Test
+    void emptyResult() throws Exception {
+        Path file = write(List.of());
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            assertThat(reader.getFooter().getFileMetaData().getSchema().getFieldCount(), is(RowDecoderTest.COLUMNS.size()));
+            assertThat(reader.getRecordCount(), is(0L));
+        }
+    }
+
+    private Path write(List<Object[]> rows) throws Exception {
+        ResultSet rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        Path file = tempDir.resolve("result.parquet");
+        try (OutputStream output = Files.newOutputStream(file); ParquetRowWriter writer = new ParquetRowWriter(output, ParquetRowWriter.DEFAULT_ROW_GROUP_SIZE, true)) {
+            writer.start(decoder.getColumns());
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        return file;
+    }
+
+    private static List<GenericRecord> read(Path file) throws IOException {
+        GenericData data = new GenericData();
+        data.addLogicalTypeConversion(new Conversions.DecimalConversion());
+        data.addLogicalTypeConversion(new TimeConversions.DateConversion());
+        data.addLogicalTypeConversion(new TimeConversions.TimestampMicrosConversion());
+
+        List<GenericRecord> records = new ArrayList<>();
+        try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(new LocalInputFile(file))
+            .withConf(new PlainParquetConfiguration())
+            .withDataModel(data)
+            .build()) {
+            GenericRecord record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+
+        return records;
+    }
+}
@@ -0,0 +1,100 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PipelinedRowWriterTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @Test
+    void sameOutputAsSequential() throws Exception {
+        List<Object[]> rows = rows(10_000);
+
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        long sequentialCount = write(rows, OutputFormat.ION.writer(sequential, true));
+
+        ByteArrayOutputStream pipelined = new ByteArrayOutputStream();
+        long pipelinedCount = write(rows, new PipelinedRowWriter(OutputFormat.ION, pipelined, 3, 128));
+
+        assertThat(pipelinedCount, is(sequentialCount));
+        assertThat(pipelined.toByteArray(), is(sequential.toByteArray()));
+    }
+
+    @Test
+    void csvSameOutputAsSequential() throws Exception {
+        List<Object[]> rows = rows(1_000);
+
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        write(rows, OutputFormat.CSV.writer(sequential, true));
+
+        ByteArrayOutputStream pipelined = new ByteArrayOutputStream();
+        write(rows, new PipelinedRowWriter(OutputFormat.CSV, pipelined, 2, 64));
+
+        // a single header line for the whole result
+        assertThat(pipelined.toByteArray(), is(sequential.toByteArray()));
+    }
+
+    @Test
+    void emptyResult() throws Exception {
+        ByteArrayOutputStream pipelined = new ByteArrayOutputStream();
+        long count = write(List.of(), new PipelinedRowWriter(OutputFormat.ION, pipelined, 2, 16));
+
+        assertThat(count, is(0L));
+        assertThat(pipelined.size(), is(0));
+    }
+
+    @Test
+    void writeFailure() {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        var exception = assertThrows(IOException.class, () -> write(rows(5_000), new PipelinedRowWriter(OutputFormat.ION, failing, 2, 16)));
+        assertThat(exception.getCause().getMessage(), containsString("disk full"));
+    }
+
+    private static long write(List<Object[]> rows, RowWriter writer) throws Exception {
+        ResultSet rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, rows);
+        RowDecoder decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        try (writer) {
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        return writer.getCount();
+    }
+
+    static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{
+                (long) i, i % 7 == 0 ? null : i, i / 3D, i % 2 == 0, "name-" + i, new BigDecimal(i + ".25"),
+                Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(i % 365)),
+                Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i)),
+                new byte[]{(byte) i}
+            });
+        }
+        return rows;
+    }
+}
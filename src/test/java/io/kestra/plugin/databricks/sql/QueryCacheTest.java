@@ -0,0 +1,51 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.plugin.databricks.utils.Compression;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class QueryCacheTest {
+    private static final String URL = "jdbc:databricks://host:443;HttpPath=/sql/1.0/warehouses/abc";
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    @Test
+    void sameKeyForSameTarget() {
+        assertThat(key(properties("token", Map.of()), UTC), is(key(properties("token", Map.of()), UTC)));
+    }
+
+    @Test
+    void keyDependsOnTheToken() {
+        assertThat(key(properties("token", Map.of()), UTC), not(key(properties("other", Map.of()), UTC)));
+    }
+
+    @Test
+    void keyDependsOnTheProperties() {
+        assertThat(
+            key(properties("token", Map.of("UseNativeQuery", "1")), UTC),
+            not(key(properties("token", Map.of("UseNativeQuery", "0")), UTC))
+        );
+    }
+
+    @Test
+    void keyDependsOnTheTimeZone() {
+        assertThat(key(properties("token", Map.of()), UTC), not(key(properties("token", Map.of()), ZoneId.of("Europe/Paris"))));
+    }
+
+    private static String key(Properties props, ZoneId zoneId) {
+        return QueryCache.key(AbstractJdbcTask.poolKey(URL, props), "SELECT 1", null, OutputFormat.ION, Compression.NONE, zoneId);
+    }
+
+    private static Properties properties(String token, Map<String, String> properties) {
+        Properties props = new Properties();
+        props.put("PWD", token);
+        props.putAll(properties);
+        return props;
+    }
+}
@@ -0,0 +1,53 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.net.URI;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.plugin.databricks.utils.Compression;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class QueryExportTest {
+    @Test
+    void firstPage() {
+        assertThat(
+            Query.keysetPage("SELECT * FROM events", "id", null, null, 100),
+            is("SELECT kestra_page.*, CAST(id AS STRING) AS kestra_key, typeof(id) AS kestra_key_type" +
+                " FROM (SELECT * FROM events) AS kestra_page WHERE id IS NOT NULL ORDER BY id LIMIT 100")
+        );
+    }
+
+    @Test
+    void nextPage() {
+        assertThat(
+            Query.keysetPage("SELECT * FROM events", "created_at", "2024-01-01 00:00:00", "timestamp", 100),
+            is("SELECT kestra_page.*, CAST(created_at AS STRING) AS kestra_key, typeof(created_at) AS kestra_key_type" +
+                " FROM (SELECT * FROM events) AS kestra_page WHERE created_at > CAST('2024-01-01 00:00:00' AS timestamp) ORDER BY created_at LIMIT 100")
+        );
+    }
+
+    @Test
+    void checkpointAccumulatesPages() {
+        ExportCheckpoint checkpoint = ExportCheckpoint.start("fingerprint")
+            .next("10", "bigint", List.of(URI.create("kestra:///page1.ion")), List.of(10L))
+            .next("15", "bigint", List.of(URI.create("kestra:///page2.ion")), List.of(5L));
+
+        assertThat(checkpoint.resumed(), is(true));
+        assertThat(checkpoint.lastKey(), is("15"));
+        assertThat(checkpoint.uris(), contains(URI.create("kestra:///page1.ion"), URI.create("kestra:///page2.ion")));
+        assertThat(checkpoint.sizes(), contains(10L, 5L));
+        assertThat(checkpoint.size(), is(15L));
+        assertThat(ExportCheckpoint.start("fingerprint").resumed(), is(false));
+    }
+
+    @Test
+    void fingerprintChangesWithThePageSize() {
+        String fingerprint = ExportCheckpoint.fingerprint("url", "SELECT 1", "id", 100, OutputFormat.ION, Compression.NONE);
+
+        assertThat(ExportCheckpoint.fingerprint("url", "SELECT 1", "id", 100, OutputFormat.ION, Compression.NONE), is(fingerprint));
+        assertThat(ExportCheckpoint.fingerprint("url", "SELECT 1", "id", 200, OutputFormat.ION, Compression.NONE), not(fingerprint));
+    }
+}
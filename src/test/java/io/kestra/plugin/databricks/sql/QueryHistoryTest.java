@@ -0,0 +1,90 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.databricks.sdk.service.sql.ListQueryHistoryResponse;
+import com.databricks.sdk.service.sql.QueryHistoryAPI;
+import com.databricks.sdk.service.sql.QueryInfo;
+import com.databricks.sdk.service.sql.QueryMetrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class QueryHistoryTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryHistoryTest.class);
+
+    private static final List<QueryInfo> CONCURRENT_RUNS = List.of(
+        new QueryInfo().setQueryId("01ef").setQueryText("SELECT 1").setQueryStartTimeMs(1_000L),
+        new QueryInfo().setQueryId("02ef").setQueryText("SELECT 1").setQueryStartTimeMs(2_000L)
+    );
+
+    @Test
+    void findByStatementId() throws Exception {
+        Optional<QueryInfo> found = QueryHistory.find(history(CONCURRENT_RUNS), "abc", "01ef", "SELECT 1", 0L, Duration.ZERO, LOGGER);
+
+        assertThat(found.map(QueryInfo::getQueryId), is(Optional.of("01ef")));
+    }
+
+    @Test
+    void findByText() throws Exception {
+        Optional<QueryInfo> found = QueryHistory.find(history(CONCURRENT_RUNS.subList(0, 1)), "abc", null, " SELECT 1\n", 0L, Duration.ZERO, LOGGER);
+
+        assertThat(found.map(QueryInfo::getQueryId), is(Optional.of("01ef")));
+    }
+
+    @Test
+    void ambiguousText() throws Exception {
+        Optional<QueryInfo> found = QueryHistory.find(history(CONCURRENT_RUNS), "abc", null, "SELECT 1", 0L, Duration.ZERO, LOGGER);
+
+        assertThat(found.isEmpty(), is(true));
+    }
+    @Test
+    void metrics() {
+        QueryInfo query = new QueryInfo()
+            .setQueryId("01ef")
+            .setMetrics(new QueryMetrics()
+                .setRowsProducedCount(1000L)
+                .setReadBytes(2048L)
+                .setSpillToDiskBytes(0L)
+                .setCompilationTimeMs(120L)
+                .setExecutionTimeMs(3400L)
+                .setTotalTimeMs(5000L)
+                .setResultFromCache(false)
+                .setProvisioningQueueStartTimestamp(10_000L)
+                .setOverloadingQueueStartTimestamp(10_500L)
+                .setQueryCompilationStartTimestamp(11_200L)
+            );
+
+        Map<String, Object> metrics = QueryHistory.metrics(query);
+
+        assertThat(metrics.keySet(), contains(
+            "rowsProduced", "readBytes", "spillToDiskBytes", "compilationTimeMs", "executionTimeMs", "queueTimeMs", "totalTimeMs", "resultFromCache"
+        ));
+        assertThat(metrics.get("rowsProduced"), is(1000L));
+        // from the first queue entered to the compilation
+        assertThat(metrics.get("queueTimeMs"), is(1200L));
+        assertThat(metrics.get("resultFromCache"), is(false));
+    }
+
+    @Test
+    void missingMetrics() {
+        assertThat(QueryHistory.metrics(new QueryInfo()).isEmpty(), is(true));
+
+        Map<String, Object> metrics = QueryHistory.metrics(new QueryInfo().setMetrics(new QueryMetrics().setTotalTimeMs(10L)));
+        assertThat(metrics, is(Map.of("totalTimeMs", 10L)));
+    }
+
+    /**
+     * A query history returning the queries whatever the filter, the filter of the server being only a first pass.
+     */
+    private static QueryHistoryAPI history(List<QueryInfo> queries) {
+        return new QueryHistoryAPI(request -> new ListQueryHistoryResponse().setRes(queries));
+    }
+}
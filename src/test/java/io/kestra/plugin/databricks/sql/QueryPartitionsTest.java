@@ -0,0 +1,39 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryPartitionsTest {
+    @Test
+    void predicates() {
+        List<String> predicates = Query.partitionPredicates("id", 0, 10, 3);
+
+        assertThat(predicates, contains(
+            "id < 4 OR id IS NULL",
+            "id >= 4 AND id < 8",
+            "id >= 8"
+        ));
+    }
+
+    @Test
+    void fewerValuesThanPartitions() {
+        assertThat(Query.partitionPredicates("id", 0, 2, 8), contains("id < 1 OR id IS NULL", "id >= 1"));
+        assertThat(Query.partitionPredicates("id", 5, 5, 4), contains(nullValue()));
+    }
+
+    @Test
+    void singlePartition() {
+        assertThat(Query.partitionPredicates("id", 0, 100, 1), contains(nullValue()));
+    }
+
+    @Test
+    void invalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> Query.partitionPredicates("id", 10, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> Query.partitionPredicates("id", 0, 10, 0));
+    }
+}
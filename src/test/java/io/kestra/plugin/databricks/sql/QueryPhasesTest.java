@@ -0,0 +1,89 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class QueryPhasesTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void allPhases() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        QueryPhases phases = new QueryPhases("dbc.cloud.databricks.com", "/sql/1.0/warehouses/abc");
+
+        phases.connected(System.nanoTime());
+        phases.executing();
+        phases.executed();
+        phases.firstRow();
+        Thread.sleep(5);
+        phases.fetched(100);
+        phases.uploaded(2048, 512);
+        phases.record(runContext, true, "partition", "0");
+
+        List<AbstractMetricEntry<?>> metrics = runContext.metrics();
+        assertThat(
+            metrics.stream().map(AbstractMetricEntry::getName).toList(),
+            containsInAnyOrder(
+                "phase.connect", "phase.execute", "phase.first.row", "phase.fetch", "phase.upload",
+                "fetch.rows.per.second", "output.bytes.written", "output.bytes.uploaded"
+            )
+        );
+        metrics.forEach(metric -> assertThat(metric.getTags(), is(Map.of(
+            "host", "dbc.cloud.databricks.com",
+            "httpPath", "/sql/1.0/warehouses/abc",
+            "partition", "0",
+            "outcome", "success"
+        ))));
+        assertThat(value(metrics, "output.bytes.written"), is(2048D));
+        assertThat(value(metrics, "output.bytes.uploaded"), is(512D));
+        assertThat((Double) value(metrics, "fetch.rows.per.second"), allOf(greaterThan(0D), lessThan(100 / 0.005)));
+    }
+
+    @Test
+    void missingPhasesAreNotRecorded() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        QueryPhases phases = new QueryPhases("host", "path");
+
+        phases.connected(System.nanoTime());
+        phases.executing();
+        phases.executed();
+        phases.record(runContext, true);
+
+        assertThat(
+            runContext.metrics().stream().map(AbstractMetricEntry::getName).toList(),
+            containsInAnyOrder("phase.connect", "phase.execute")
+        );
+    }
+
+    @Test
+    void failedQuery() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        QueryPhases phases = new QueryPhases("host", "path");
+
+        phases.connected(System.nanoTime());
+        phases.executing();
+        phases.record(runContext, false);
+
+        List<AbstractMetricEntry<?>> metrics = runContext.metrics();
+        assertThat(metrics.stream().map(AbstractMetricEntry::getName).toList(), contains("phase.connect"));
+        assertThat(metrics.getFirst().getTags(), hasEntry("outcome", "failure"));
+    }
+
+    private static Object value(List<AbstractMetricEntry<?>> metrics, String name) {
+        return metrics.stream().filter(metric -> metric.getName().equals(name)).findFirst().orElseThrow().getValue();
+    }
+}
@@ -0,0 +1,50 @@
+package io.kestra.plugin.databricks.sql;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@Disabled("Need an account to work")
+class ReadChangesTest {
+    private static final String TOKEN = "";
+    private static final String HOST = "";
+    private static final String HTTP_PATH = "";
+    private static final String TABLE = "";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run() throws Exception {
+        var task = ReadChanges.builder()
+            .id(IdUtils.create())
+            .type(ReadChanges.class.getName())
+            .accessToken(Property.ofValue(TOKEN))
+            .host(Property.ofValue(HOST))
+            .httpPath(Property.ofValue(HTTP_PATH))
+            .table(Property.ofValue(TABLE))
+            .build();
+
+        var runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        var first = task.run(runContext);
+        assertThat(first.getEndVersion(), greaterThanOrEqualTo(first.getStartVersion()));
+
+        // nothing was committed since, the second run has no version to read
+        var second = task.run(runContext);
+        assertThat(second.getStartVersion(), is(first.getEndVersion() + 1));
+        assertThat(second.getSize(), is(0L));
+    }
+}
@@ -0,0 +1,142 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.databricks.utils.Compression;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class RollingRowWriterTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void rollOnRows() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        RollingRowWriter writer = write(runContext, 10L, null, 25);
+
+        assertThat(writer.getCount(), is(25L));
+        assertThat(writer.getSizes(), contains(10L, 10L, 5L));
+        assertThat(writer.getUris(), hasSize(3));
+        for (int i = 0; i < 3; i++) {
+            // each CSV file has its own header line
+            assertThat(lines(runContext, writer.getUris().get(i)), hasSize(writer.getSizes().get(i).intValue() + 1));
+        }
+    }
+
+    @Test
+    void rollOnBytes() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        RollingRowWriter writer = write(runContext, null, 64 * 1024L, 10_000);
+
+        // the byte limit is checked on row boundaries, once the writer buffer is flushed
+        assertThat(writer.getCount(), is(10_000L));
+        assertThat(writer.getSizes().size(), greaterThan(1));
+        assertThat(writer.getSizes().stream().mapToLong(Long::longValue).sum(), is(10_000L));
+        assertThat(writer.getUris(), hasSize(writer.getSizes().size()));
+    }
+
+    @Test
+    void singleFileWithoutLimits() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        assertThat(write(runContext, null, null, 25).getUris(), hasSize(1));
+        assertThat(write(runContext, null, null, 0).getUris(), hasSize(1));
+    }
+
+    @Test
+    void streaming() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        RollingRowWriter streamed = write(runContext, 10L, null, 25, true);
+        RollingRowWriter written = write(runContext, 10L, null, 25, false);
+
+        assertThat(streamed.getSizes(), contains(10L, 10L, 5L));
+        for (int i = 0; i < 3; i++) {
+            assertThat(lines(runContext, streamed.getUris().get(i)), is(lines(runContext, written.getUris().get(i))));
+        }
+    }
+
+    @Test
+    void failedWriteStopsThePipeline() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        var rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, PipelinedRowWriterTest.rows(10));
+        var decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        RollingRowWriter writer = new RollingRowWriter(
+            runContext,
+            OutputFormat.ION.getExtension(),
+            Compression.NONE,
+            outputStream -> new PipelinedRowWriter(OutputFormat.ION, outputStream, 2, 4),
+            null,
+            null,
+            false
+        );
+        rs.next();
+        writer.write(decoder, rs);
+        // a null decoder fails the write
+        assertThrows(NullPointerException.class, () -> writer.write(null, rs));
+        writer.close();
+
+        assertThat(writer.getUris(), nullValue());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pipelineThreads() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(pipelineThreads(), is(0L));
+    }
+
+    private static long pipelineThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.isAlive() && thread.getName().startsWith(PipelinedRowWriter.THREAD_PREFIX))
+            .count();
+    }
+
+    private static RollingRowWriter write(RunContext runContext, Long maxRows, Long maxBytes, int count) throws Exception {
+        return write(runContext, maxRows, maxBytes, count, false);
+    }
+
+    private static RollingRowWriter write(RunContext runContext, Long maxRows, Long maxBytes, int count, boolean streaming) throws Exception {
+        var rs = SyntheticResultSet.of(RowDecoderTest.COLUMNS, PipelinedRowWriterTest.rows(count));
+        var decoder = RowDecoder.of(rs, new DatabricksCellConverter(ZONE_ID), null);
+
+        RollingRowWriter writer = new RollingRowWriter(
+            runContext,
+            OutputFormat.CSV.getExtension(),
+            Compression.NONE,
+            outputStream -> OutputFormat.CSV.writer(outputStream, true),
+            maxRows,
+            maxBytes,
+            streaming
+        );
+        try (writer) {
+            while (rs.next()) {
+                writer.write(decoder, rs);
+            }
+        }
+
+        return writer;
+    }
+
+    private static List<String> lines(RunContext runContext, URI uri) throws Exception {
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
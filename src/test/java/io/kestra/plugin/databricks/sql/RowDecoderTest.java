@@ -0,0 +1,94 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RowDecoderTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("Europe/Paris");
+
+    static final List<SyntheticResultSet.Column> COLUMNS = List.of(
+        new SyntheticResultSet.Column("id", Types.BIGINT, "BIGINT"),
+        new SyntheticResultSet.Column("count", Types.INTEGER, "INT"),
+        new SyntheticResultSet.Column("ratio", Types.DOUBLE, "DOUBLE"),
+        new SyntheticResultSet.Column("enabled", Types.BOOLEAN, "BOOLEAN"),
+        new SyntheticResultSet.Column("name", Types.VARCHAR, "STRING"),
+        new SyntheticResultSet.Column("amount", Types.DECIMAL, "DECIMAL(10,2)", 10, 2),
+        new SyntheticResultSet.Column("day", Types.DATE, "DATE"),
+        new SyntheticResultSet.Column("created", Types.TIMESTAMP, "TIMESTAMP"),
+        new SyntheticResultSet.Column("payload", Types.BINARY, "BINARY")
+    );
+
+    static List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{
+            1L, 42, 0.5D, true, "first", new BigDecimal("12.34"),
+            Date.valueOf(LocalDate.of(2024, 1, 31)),
+            Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 15, 30)),
+            new byte[]{1, 2, 3}
+        });
+        rows.add(new Object[]{2L, null, null, null, null, null, null, null, null});
+        return rows;
+    }
+
+    @Test
+    void decode() throws Exception {
+        ResultSet rs = SyntheticResultSet.of(COLUMNS, rows());
+        var cellConverter = new DatabricksCellConverter(ZONE_ID);
+        var decoder = RowDecoder.of(rs, cellConverter, null);
+
+        assertThat(decoder.getColumnCount(), is(9));
+        assertThat(decoder.getColumnName(0), is("id"));
+
+        assertThat(rs.next(), is(true));
+        Map<String, Object> first = decoder.decode(rs);
+        assertThat(first.keySet(), contains("id", "count", "ratio", "enabled", "name", "amount", "day", "created", "payload"));
+        assertThat(first.get("id"), is(1L));
+        assertThat(first.get("count"), is(42));
+        assertThat(first.get("ratio"), is(0.5D));
+        assertThat(first.get("enabled"), is(true));
+        assertThat(first.get("name"), is("first"));
+        assertThat(first.get("amount"), is(new BigDecimal("12.34")));
+        assertThat(first.get("day"), is(LocalDate.of(2024, 1, 31)));
+        assertThat(first.get("created"), is(Timestamp.valueOf(LocalDateTime.of(2024, 1, 31, 10, 15, 30)).toInstant().atZone(ZONE_ID)));
+        assertThat(first.get("payload"), is(new byte[]{1, 2, 3}));
+
+        assertThat(rs.next(), is(true));
+        Map<String, Object> second = decoder.decode(rs);
+        assertThat(second.get("id"), is(2L));
+        second.entrySet().stream()
+            .filter(e -> !e.getKey().equals("id"))
+            .forEach(e -> assertThat(e.getKey(), e.getValue(), nullValue()));
+
+        assertThat(rs.next(), is(false));
+    }
+
+    @Test
+    void decodeLikeGetObject() throws Exception {
+        ResultSet typed = SyntheticResultSet.of(COLUMNS, rows());
+        ResultSet generic = SyntheticResultSet.of(COLUMNS, rows());
+        var cellConverter = new DatabricksCellConverter(ZONE_ID);
+        var decoder = RowDecoder.of(typed, cellConverter, null);
+
+        while (typed.next() && generic.next()) {
+            Map<String, Object> row = decoder.decode(typed);
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                Object expected = cellConverter.convertCell(i + 1, generic, null);
+                assertThat(COLUMNS.get(i).name(), row.get(COLUMNS.get(i).name()), is(expected));
+            }
+        }
+    }
+}
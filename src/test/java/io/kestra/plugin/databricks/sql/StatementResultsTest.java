@@ -0,0 +1,52 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.databricks.sdk.service.sql.CancelExecutionRequest;
+import com.databricks.sdk.service.sql.StatementExecutionAPI;
+import com.databricks.sdk.service.sql.StatementExecutionService;
+import com.databricks.sdk.service.sql.StatementResponse;
+import com.databricks.sdk.service.sql.StatementState;
+import com.databricks.sdk.service.sql.StatementStatus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatementResultsTest {
+    @Test
+    void cancelWhenInterrupted() {
+        List<String> cancelled = new ArrayList<>();
+        StatementExecutionService service = (StatementExecutionService) Proxy.newProxyInstance(
+            StatementResultsTest.class.getClassLoader(),
+            new Class<?>[]{StatementExecutionService.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getStatement" -> running();
+                case "cancelExecution" -> {
+                    cancelled.add(((CancelExecutionRequest) args[0]).getStatementId());
+                    yield null;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        );
+
+        Thread.currentThread().interrupt();
+        assertThrows(
+            InterruptedException.class,
+            () -> StatementResults.waitForCompletion(new StatementExecutionAPI(service), running(), Duration.ofSeconds(1))
+        );
+
+        assertThat(cancelled, contains("01ef"));
+        // the interruption is left for the caller
+        assertThat(Thread.interrupted(), is(true));
+    }
+
+    private static StatementResponse running() {
+        return new StatementResponse().setStatementId("01ef").setStatus(new StatementStatus().setState(StatementState.RUNNING));
+    }
+}
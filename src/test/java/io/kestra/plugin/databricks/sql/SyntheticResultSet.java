@@ -0,0 +1,96 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+/**
+ * In-memory {@link ResultSet} over a fixed list of rows, only implementing what the fetch path uses.
+ */
+final class SyntheticResultSet {
+    private SyntheticResultSet() {
+        //utility class pattern
+    }
+
+    record Column(String name, int sqlType, String typeName, int precision, int scale) {
+        Column(String name, int sqlType, String typeName) {
+            this(name, sqlType, typeName, 0, 0);
+        }
+    }
+
+    static ResultSet of(List<Column> columns, List<Object[]> rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+            SyntheticResultSet.class.getClassLoader(),
+            new Class<?>[]{ResultSetMetaData.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getColumnCount" -> columns.size();
+                case "getColumnName", "getColumnLabel" -> columns.get((int) args[0] - 1).name();
+                case "getColumnType" -> columns.get((int) args[0] - 1).sqlType();
+                case "getColumnTypeName" -> columns.get((int) args[0] - 1).typeName();
+                case "getPrecision" -> columns.get((int) args[0] - 1).precision();
+                case "getScale" -> columns.get((int) args[0] - 1).scale();
+                default -> throw new SQLFeatureNotSupportedException(method.getName());
+            }
+        );
+
+        var state = new Object() {
+            int row = -1;
+            boolean wasNull;
+            boolean closed;
+
+            Object cell(Object[] args) {
+                Object value = rows.get(row)[(int) args[0] - 1];
+                wasNull = value == null;
+                return value;
+            }
+        };
+
+        return (ResultSet) Proxy.newProxyInstance(
+            SyntheticResultSet.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "next" -> ++state.row < rows.size();
+                case "getMetaData" -> metaData;
+                case "wasNull" -> state.wasNull;
+                case "close" -> {
+                    state.closed = true;
+                    yield null;
+                }
+                case "isClosed" -> state.closed;
+                case "getObject", "getString", "getBytes", "getDate", "getTimestamp", "getTime", "getArray" -> state.cell(args);
+                case "getBigDecimal" -> {
+                    Object value = state.cell(args);
+                    yield value == null ? null : new BigDecimal(value.toString());
+                }
+                case "getBoolean" -> {
+                    Object value = state.cell(args);
+                    yield value != null && (Boolean) value;
+                }
+                case "getInt" -> {
+                    Object value = state.cell(args);
+                    yield value == null ? 0 : ((Number) value).intValue();
+                }
+                case "getLong" -> {
+                    Object value = state.cell(args);
+                    yield value == null ? 0L : ((Number) value).longValue();
+                }
+                case "getDouble" -> {
+                    Object value = state.cell(args);
+                    yield value == null ? 0D : ((Number) value).doubleValue();
+                }
+                case "getFloat" -> {
+                    Object value = state.cell(args);
+                    yield value == null ? 0F : ((Number) value).floatValue();
+                }
+                case "getShort" -> {
+                    Object value = state.cell(args);
+                    yield value == null ? (short) 0 : ((Number) value).shortValue();
+                }
+                default -> throw new SQLFeatureNotSupportedException(method.getName());
+            }
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package io.kestra.plugin.databricks.sql;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@Disabled("Need an account to work")
+class TriggerTest {
+    private static final String TOKEN = "";
+    private static final String HOST = "";
+    private static final String HTTP_PATH = "";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void evaluate() throws Exception {
+        var trigger = Trigger.builder()
+            .id(IdUtils.create())
+            .type(Trigger.class.getName())
+            .accessToken(Property.ofValue(TOKEN))
+            .host(Property.ofValue(HOST))
+            .httpPath(Property.ofValue(HTTP_PATH))
+            .sql(Property.ofValue("SELECT id FROM range(10)"))
+            .watermarkColumn(Property.ofValue("id"))
+            .build();
+
+        var context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        Optional<Execution> first = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(first.isPresent(), is(true));
+        assertThat(((Number) first.get().getTrigger().getVariables().get("size")).longValue(), is(10L));
+
+        // the watermark is now the maximum id, there are no new rows
+        Optional<Execution> second = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(second.isPresent(), is(false));
+    }
+}
@@ -0,0 +1,52 @@
+package io.kestra.plugin.databricks.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.luben.zstd.ZstdInputStream;
+import net.jpountz.lz4.LZ4FrameInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+class CompressionTest {
+    @Test
+    void roundTrip() throws Exception {
+        for (Compression compression : Compression.values()) {
+            roundTrip(compression);
+        }
+    }
+
+    private static void roundTrip(Compression compression) throws Exception {
+        byte[] raw = "{id:1,name:\"first\"}\n".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = compression.compress(compressed)) {
+            outputStream.write(raw);
+        }
+
+        if (compression != Compression.NONE) {
+            assertThat(compressed.size(), lessThan(raw.length));
+        }
+
+        try (InputStream inputStream = decompress(compression, new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertThat(inputStream.readAllBytes(), is(raw));
+        }
+    }
+
+    private static InputStream decompress(Compression compression, InputStream inputStream) throws Exception {
+        return switch (compression) {
+            case NONE -> inputStream;
+            case GZIP -> new GZIPInputStream(inputStream);
+            case ZSTD -> new ZstdInputStream(inputStream);
+            case LZ4 -> new LZ4FrameInputStream(inputStream);
+        };
+    }
+}
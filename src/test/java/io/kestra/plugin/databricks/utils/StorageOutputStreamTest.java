@@ -0,0 +1,66 @@
+package io.kestra.plugin.databricks.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class StorageOutputStreamTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void upload() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        // larger than the chunks and the queue together, so that writes wait for the upload
+        byte[] bytes = new byte[5 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(bytes);
+
+        StorageOutputStream outputStream = new StorageOutputStream(runContext, "upload.bin", executor);
+        try (outputStream) {
+            outputStream.write(bytes[0]);
+            outputStream.write(bytes, 1, bytes.length - 1);
+        }
+
+        URI uri = outputStream.getUri();
+        assertThat(uri.toString(), endsWith(".bin"));
+        try (InputStream inputStream = runContext.storage().getFile(uri)) {
+            assertThat(inputStream.readAllBytes(), is(bytes));
+        }
+    }
+
+    @Test
+    void abort() throws Exception {
+        RunContext runContext = runContextFactory.of();
+
+        StorageOutputStream outputStream = new StorageOutputStream(runContext, "aborted.bin", executor);
+        outputStream.write(new byte[1024 * 1024]);
+        outputStream.abort();
+
+        assertThrows(IOException.class, outputStream::getUri);
+        assertThrows(IOException.class, () -> outputStream.write(1));
+    }
+}